@@ -0,0 +1,68 @@
+package technology.tabula;
+
+import java.awt.geom.Point2D;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The ruling lines of a regular grid, like the ones of large spreadsheets, for the stages whose cost
+ * depends on the number of ruling intersections or cells rather than on a particular document. The page
+ * has those rulings and a short word in every cell.
+ */
+@State(Scope.Benchmark)
+public class GridState {
+
+    @Param({"10x10", "60x40"})
+    public String grid;
+
+    List<Ruling> horizontalRulings;
+    List<Ruling> verticalRulings;
+    Page page;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String[] size = grid.split("x");
+        int rows = Integer.parseInt(size[0]);
+        int columns = Integer.parseInt(size[1]);
+        float rowHeight = 12f;
+        float columnWidth = 20f;
+
+        horizontalRulings = new ArrayList<>();
+        for (int row = 0; row <= rows; row++) {
+            float y = 10f + row * rowHeight;
+            horizontalRulings.add(new Ruling(new Point2D.Float(10f, y), new Point2D.Float(10f + columns * columnWidth, y)));
+        }
+        verticalRulings = new ArrayList<>();
+        for (int column = 0; column <= columns; column++) {
+            float x = 10f + column * columnWidth;
+            verticalRulings.add(new Ruling(new Point2D.Float(x, 10f), new Point2D.Float(x, 10f + rows * rowHeight)));
+        }
+
+        PDType1Font font = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+        List<TextElement> text = new ArrayList<>();
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                for (int c = 0; c < 3; c++) {
+                    text.add(new TextElement(12f + row * rowHeight, 12f + column * columnWidth + c * 4f, 4f, 8f, font, 8f, "x", 2f));
+                }
+            }
+        }
+        List<Ruling> rulings = new ArrayList<>(horizontalRulings);
+        rulings.addAll(verticalRulings);
+        page = Page.Builder.newInstance()
+                .withPageDims(PageDims.of(0, 0, 20f + columns * columnWidth, 20f + rows * rowHeight))
+                .withNumber(1)
+                .withTextElements(text)
+                .withRulings(rulings)
+                .build();
+    }
+
+}
@@ -0,0 +1,65 @@
+package technology.tabula;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import technology.tabula.extractors.SpreadsheetExtractionAlgorithm;
+
+/**
+ * One page of one of the test PDFs, extracted once per trial, along with the intermediate
+ * results every stage of the pipeline takes as input.
+ */
+@State(Scope.Benchmark)
+public class PageState {
+
+    private static final String RESOURCES = "src/test/resources/technology/tabula/";
+
+    @Param({"eu-002.pdf", "argentina_diputados_voting_record.pdf", "us-024.pdf", "spanning_cells.pdf", "twotables.pdf"})
+    public String document;
+
+    @Param({"1"})
+    public int pageNumber;
+
+    PDDocument pdfDocument;
+    ObjectExtractor extractor;
+    // the same document, its rulings coalesced as they are collected
+    ObjectExtractor coalescingExtractor;
+    Page page;
+
+    List<TextElement> textElements;
+    List<TextChunk> textChunks;
+    List<Ruling> horizontalRulings;
+    List<Ruling> verticalRulings;
+    List<Cell> cells;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        pdfDocument = Loader.loadPDF(new File(RESOURCES + document));
+        extractor = new ObjectExtractor(pdfDocument);
+        coalescingExtractor = new ObjectExtractor(pdfDocument);
+        coalescingExtractor.setCoalesceRulings(true);
+        page = extractor.extractPage(pageNumber);
+
+        horizontalRulings = page.getHorizontalRulings();
+        verticalRulings = page.getVerticalRulings();
+        textElements = page.getText();
+        textChunks = TextElement.mergeWords(textElements, verticalRulings);
+        cells = SpreadsheetExtractionAlgorithm.findCells(horizontalRulings, verticalRulings);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        extractor.close();
+    }
+
+}
@@ -0,0 +1,135 @@
+package technology.tabula;
+
+import java.awt.geom.Point2D;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import technology.tabula.detectors.NurminenDetectionAlgorithm;
+import technology.tabula.extractors.BasicExtractionAlgorithm;
+import technology.tabula.extractors.SpreadsheetExtractionAlgorithm;
+
+/**
+ * Every stage of the extraction pipeline, measured on its own. Each benchmark only gets the
+ * output of the previous stages (see {@link PageState}), so a regression shows up in the stage
+ * that caused it.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PipelineBenchmark {
+
+    @Benchmark
+    public Page extractPage(PageState state) throws IOException {
+        return state.extractor.extractPage(state.pageNumber);
+    }
+
+    @Benchmark
+    public List<TextChunk> mergeWords(PageState state) {
+        return TextElement.mergeWords(state.textElements, state.verticalRulings);
+    }
+
+    @Benchmark
+    public List<Line> groupByLines(PageState state) {
+        // groupByLines consumes its argument
+        return TextChunk.groupByLines(new ArrayList<>(state.textChunks));
+    }
+
+    @Benchmark
+    public List<Float> columnPositionsInTextGrid(TextGridState state) {
+        return BasicExtractionAlgorithm.columnPositions(state.lines);
+    }
+
+    @Benchmark
+    public List<Table> basicExtract(PageState state) {
+        return new BasicExtractionAlgorithm().extract(state.page);
+    }
+
+    @Benchmark
+    public List<Table> extractPageAndBasicExtract(PageState state) throws IOException {
+        // on a fresh page, whose text only exists as glyphs
+        return new BasicExtractionAlgorithm().extract(state.extractor.extractPage(state.pageNumber));
+    }
+
+    @Benchmark
+    public Map<Point2D, Ruling[]> findIntersections(PageState state) {
+        return Ruling.findIntersections(state.horizontalRulings, state.verticalRulings);
+    }
+
+    @Benchmark
+    public Map<Point2D, Ruling[]> findIntersectionsInGrid(GridState state) {
+        return Ruling.findIntersections(state.horizontalRulings, state.verticalRulings);
+    }
+
+    @Benchmark
+    public List<Cell> findCells(PageState state) {
+        return SpreadsheetExtractionAlgorithm.findCells(state.horizontalRulings, state.verticalRulings);
+    }
+
+    @Benchmark
+    public List<Cell> findCellsInGrid(GridState state) {
+        return SpreadsheetExtractionAlgorithm.findCells(state.horizontalRulings, state.verticalRulings);
+    }
+
+    @Benchmark
+    public List<Table> spreadsheetExtract(PageState state) {
+        return new SpreadsheetExtractionAlgorithm().extract(state.page);
+    }
+
+    @Benchmark
+    public List<Table> extractPageAndSpreadsheetExtract(PageState state) throws IOException {
+        return new SpreadsheetExtractionAlgorithm().extract(state.extractor.extractPage(state.pageNumber));
+    }
+
+    @Benchmark
+    public List<Table> extractCoalescedPageAndSpreadsheetExtract(PageState state) throws IOException {
+        return new SpreadsheetExtractionAlgorithm().extract(state.coalescingExtractor.extractPage(state.pageNumber));
+    }
+
+    @Benchmark
+    public boolean isTabular(PageState state) {
+        return new SpreadsheetExtractionAlgorithm().isTabular(state.page);
+    }
+
+    @Benchmark
+    public List<Table> spreadsheetExtractGrid(GridState state) {
+        return new SpreadsheetExtractionAlgorithm().extract(state.page);
+    }
+
+    @Benchmark
+    public List<Rectangle> findSpreadsheetsFromCells(PageState state) {
+        return SpreadsheetExtractionAlgorithm.findSpreadsheetsFromCells(state.cells);
+    }
+
+    @Benchmark
+    public List<Rectangle> nurminenDetect(PageState state) {
+        return new NurminenDetectionAlgorithm().detect(state.page);
+    }
+
+    @Benchmark
+    public List<Rectangle> nurminenDetectSingleRenderPass(PageState state) {
+        NurminenDetectionAlgorithm detector = new NurminenDetectionAlgorithm();
+        detector.setSingleRenderPass(true);
+        return detector.detect(state.page);
+    }
+
+    @Benchmark
+    public List<Rectangle> nurminenDetect72Dpi(PageState state) {
+        NurminenDetectionAlgorithm detector = new NurminenDetectionAlgorithm();
+        detector.setRenderDpi(72);
+        return detector.detect(state.page);
+    }
+
+}
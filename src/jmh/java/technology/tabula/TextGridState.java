@@ -0,0 +1,50 @@
+package technology.tabula;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The text lines of a wide table without rulings, like the ones of long bank statements, for the stages
+ * whose cost depends on the number of lines and columns rather than on a particular document.
+ */
+@State(Scope.Benchmark)
+public class TextGridState {
+
+    @Param({"100x10", "2000x30"})
+    public String grid;
+
+    List<Line> lines;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String[] size = grid.split("x");
+        int rows = Integer.parseInt(size[0]);
+        int columns = Integer.parseInt(size[1]);
+        float rowHeight = 10f;
+        float columnWidth = 40f;
+        PDType1Font font = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+        Random random = new Random(0);
+
+        lines = new ArrayList<>();
+        for (int row = 0; row < rows; row++) {
+            Line line = new Line();
+            for (int column = 0; column < columns; column++) {
+                // values of varying length, right-aligned in their column
+                float width = 10f + random.nextInt(25);
+                float left = 10f + (column + 1) * columnWidth - width;
+                line.addTextChunk(new TextChunk(new TextElement(10f + row * rowHeight, left, width, 8f, font, 8f, "0", 2f)));
+            }
+            lines.add(line);
+        }
+    }
+
+}
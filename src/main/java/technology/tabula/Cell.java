@@ -21,8 +21,31 @@ public class Cell extends RectangularTextContainer<TextChunk> {
 	private boolean spanning;
 	private boolean placeholder;
 
+	// computed on first use; see textElementsChanged()
+	private transient String text;
+	private transient String textWithoutLineReturns;
+
+	@Override
+	protected void textElementsChanged() {
+		text = null;
+		textWithoutLineReturns = null;
+	}
+
 	@Override
 	public String getText(boolean useLineReturns) {
+		if (useLineReturns) {
+			if (text == null) {
+				text = computeText(true);
+			}
+			return text;
+		}
+		if (textWithoutLineReturns == null) {
+			textWithoutLineReturns = computeText(false);
+		}
+		return textWithoutLineReturns;
+	}
+
+	private String computeText(boolean useLineReturns) {
 		if (this.textElements.size() == 0) {
 			return "";
 		}
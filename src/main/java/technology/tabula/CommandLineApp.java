@@ -18,13 +18,13 @@ import org.apache.commons.cli.DefaultParser;
 import org.apache.pdfbox.Loader;
 import org.apache.pdfbox.pdmodel.PDDocument;
 
-import technology.tabula.detectors.DetectionAlgorithm;
 import technology.tabula.detectors.NurminenDetectionAlgorithm;
 import technology.tabula.extractors.BasicExtractionAlgorithm;
 import technology.tabula.extractors.SpreadsheetExtractionAlgorithm;
 import technology.tabula.writers.CSVWriter;
 import technology.tabula.writers.JSONWriter;
 import technology.tabula.writers.TSVWriter;
+import technology.tabula.writers.TableStream;
 import technology.tabula.writers.Writer;
 
 
@@ -45,6 +45,8 @@ public class CommandLineApp {
     private OutputFormat outputFormat;
     private String password;
     private TableExtractor tableExtractor;
+    private boolean coalesceRulings;
+    private float minimumRulingLength;
 
     public CommandLineApp(Appendable defaultOutput, CommandLine line) throws ParseException {
         this.defaultOutput = defaultOutput;
@@ -52,6 +54,8 @@ public class CommandLineApp {
         this.pages = CommandLineApp.whichPages(line);
         this.outputFormat = CommandLineApp.whichOutputFormat(line);
         this.tableExtractor = CommandLineApp.createExtractor(line);
+        this.coalesceRulings = line.hasOption("coalesce-rulings");
+        this.minimumRulingLength = CommandLineApp.whichMinimumRulingLength(line);
 
         if (line.hasOption('s')) {
             this.password = line.getOptionValue('s');
@@ -161,32 +165,35 @@ public class CommandLineApp {
         try {
             pdfDocument = this.password == null ?  Loader.loadPDF(pdfFile) :  Loader.loadPDF(pdfFile,password);
             PageIterator pageIterator = getPageIterator(pdfDocument);
-            List<Table> tables = new ArrayList<>();
-
-            while (pageIterator.hasNext()) {
-                Page page = pageIterator.next();
-
-                if (tableExtractor.verticalRulingPositions != null) {
-                    for (Float verticalRulingPosition : tableExtractor.verticalRulingPositions) {
-                        page.addRuling(new Ruling(0, verticalRulingPosition, 0.0f, (float) page.getHeight()));
+            try (TableStream tableStream = openTableStream(outFile)) {
+                while (pageIterator.hasNext()) {
+                    Page page = pageIterator.next();
+
+                    if (tableExtractor.verticalRulingPositions != null) {
+                        List<Ruling> columnRulings = new ArrayList<>();
+                        for (Float verticalRulingPosition : tableExtractor.verticalRulingPositions) {
+                            columnRulings.add(new Ruling(0, verticalRulingPosition, 0.0f, (float) page.getHeight()));
+                        }
+                        page.addRulings(columnRulings);
                     }
-                }
 
-                if (pageAreas != null) {
-                    for (Pair<Integer, Rectangle> areaPair : pageAreas) {
-                        Rectangle area = areaPair.getRight();
-                        if (areaPair.getLeft() == RELATIVE_AREA_CALCULATION_MODE) {
-                            area = new Rectangle((float) (area.getTop() / 100 * page.getHeight()),
-                                    (float) (area.getLeft() / 100 * page.getWidth()), (float) (area.getWidth() / 100 * page.getWidth()),
-                                    (float) (area.getHeight() / 100 * page.getHeight()));
+                    if (pageAreas != null) {
+                        for (Pair<Integer, Rectangle> areaPair : pageAreas) {
+                            Rectangle area = areaPair.getRight();
+                            if (areaPair.getLeft() == RELATIVE_AREA_CALCULATION_MODE) {
+                                area = new Rectangle((float) (area.getTop() / 100 * page.getHeight()),
+                                        (float) (area.getLeft() / 100 * page.getWidth()), (float) (area.getWidth() / 100 * page.getWidth()),
+                                        (float) (area.getHeight() / 100 * page.getHeight()));
+                            }
+                            writeTables(tableExtractor.extractTables(page.getArea(area)), tableStream);
                         }
-                        tables.addAll(tableExtractor.extractTables(page.getArea(area)));
+                    } else {
+                        writeTables(tableExtractor.extractTables(page), tableStream);
                     }
-                } else {
-                    tables.addAll(tableExtractor.extractTables(page));
+                    // Tables are written as soon as their page is processed, so memory doesn't grow with the document.
+                    tableStream.flush();
                 }
             }
-            writeTables(tables, outFile);
         } catch (IOException e) {
             throw new ParseException(e.getMessage());
         } finally {
@@ -202,6 +209,8 @@ public class CommandLineApp {
 
     private PageIterator getPageIterator(PDDocument pdfDocument) throws IOException {
         ObjectExtractor extractor = new ObjectExtractor(pdfDocument);
+        extractor.setCoalesceRulings(coalesceRulings);
+        extractor.setMinimumRulingLength(minimumRulingLength);
         return (pages == null) ?
                 extractor.extract() :
                 extractor.extract(pages);
@@ -269,6 +278,10 @@ public class CommandLineApp {
     private static TableExtractor createExtractor(CommandLine line) throws ParseException {
         TableExtractor extractor = new TableExtractor();
         extractor.setGuess(line.hasOption('g'));
+        extractor.setGuessSinglePass(line.hasOption("guess-single-pass"));
+        if (line.hasOption("guess-dpi")) {
+            extractor.setGuessRenderDpi(parseRenderDpi(line.getOptionValue("guess-dpi")));
+        }
         extractor.setMethod(CommandLineApp.whichExtractionMethod(line));
         extractor.setUseLineReturns(line.hasOption('u'));
 
@@ -286,6 +299,34 @@ public class CommandLineApp {
 
     // utilities, etc.
 
+    private static float whichMinimumRulingLength(CommandLine line) throws ParseException {
+        if (!line.hasOption("min-ruling-length")) {
+            return 0;
+        }
+        String option = line.getOptionValue("min-ruling-length");
+        try {
+            float length = Float.parseFloat(option);
+            if (length >= 0) {
+                return length;
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        throw new ParseException("Minimum ruling length must be a number of points, 0 or more: " + option);
+    }
+
+    private static int parseRenderDpi(String option) throws ParseException {
+        try {
+            int dpi = Integer.parseInt(option);
+            if (dpi > 0) {
+                return dpi;
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        throw new ParseException("DPI must be a positive whole number: " + option);
+    }
+
     public static List<Float> parseFloatList(String option) throws ParseException {
         String[] f = option.split(",");
         List<Float> rv = new ArrayList<>();
@@ -310,6 +351,32 @@ public class CommandLineApp {
         o.addOption("v", "version", false, "Print version and exit.");
         o.addOption("h", "help", false, "Print this help text.");
         o.addOption("g", "guess", false, "Guess the portion of the page to analyze per page.");
+        o.addOption(Option.builder()
+                .longOpt("guess-single-pass")
+                .desc("With -g/--guess, render each page once, without its text, to guess the portion to analyze. "
+                        + "About twice as fast, but the portions guessed may differ slightly.")
+                .build());
+        o.addOption(Option.builder()
+                .longOpt("guess-dpi")
+                .desc("With -g/--guess, resolution the pages are rendered at to guess the portion to analyze. "
+                        + "Lower is faster but may miss the thinnest lines. "
+                        + "Default: " + NurminenDetectionAlgorithm.DEFAULT_RENDER_DPI)
+                .hasArg()
+                .argName("DPI")
+                .build());
+        o.addOption(Option.builder()
+                .longOpt("coalesce-rulings")
+                .desc("Merge the rulings of each page as it is read: hairline rectangles make a single ruling, "
+                        + "and dashes along a line make one. Faster on pages with dashed or drawn borders, "
+                        + "but the rulings may move by a fraction of a point.")
+                .build());
+        o.addOption(Option.builder()
+                .longOpt("min-ruling-length")
+                .desc("Drop the rulings of each page shorter than this many points, such as the dots of a dotted line. "
+                        + "Default: 0, keeping them all.")
+                .hasArg()
+                .argName("LENGTH")
+                .build());
         o.addOption("r", "spreadsheet", false, "[Deprecated in favor of -l/--lattice] Force PDF to be extracted using spreadsheet-style extraction (if there are ruling lines separating each cell, as in a PDF of an Excel spreadsheet)");
         o.addOption("n", "no-spreadsheet", false, "[Deprecated in favor of -t/--stream] Force PDF not to be extracted using spreadsheet-style extraction (if there are no ruling lines separating each cell)");
         o.addOption("l", "lattice", false, "Force PDF to be extracted using lattice-mode extraction (if there are ruling lines separating each cell, as in a PDF of an Excel spreadsheet)");
@@ -370,6 +437,8 @@ public class CommandLineApp {
 
     private static class TableExtractor {
         private boolean guess = false;
+        private boolean guessSinglePass = false;
+        private int guessRenderDpi = NurminenDetectionAlgorithm.DEFAULT_RENDER_DPI;
         private boolean useLineReturns = false;
         private BasicExtractionAlgorithm basicExtractor = new BasicExtractionAlgorithm();
         private SpreadsheetExtractionAlgorithm spreadsheetExtractor = new SpreadsheetExtractionAlgorithm();
@@ -394,6 +463,14 @@ public class CommandLineApp {
             this.guess = guess;
         }
 
+        public void setGuessSinglePass(boolean guessSinglePass) {
+            this.guessSinglePass = guessSinglePass;
+        }
+
+        public void setGuessRenderDpi(int guessRenderDpi) {
+            this.guessRenderDpi = guessRenderDpi;
+        }
+
         public void setUseLineReturns(boolean useLineReturns) {
             this.useLineReturns = useLineReturns;
         }
@@ -423,7 +500,9 @@ public class CommandLineApp {
             if (guess) {
                 // guess the page areas to extract using a detection algorithm
                 // currently we only have a detector that uses spreadsheets to find table areas
-                DetectionAlgorithm detector = new NurminenDetectionAlgorithm();
+                NurminenDetectionAlgorithm detector = new NurminenDetectionAlgorithm();
+                detector.setSingleRenderPass(guessSinglePass);
+                detector.setRenderDpi(guessRenderDpi);
                 List<Rectangle> guesses = detector.detect(page);
                 List<Table> tables = new ArrayList<>();
 
@@ -459,7 +538,13 @@ public class CommandLineApp {
         }
     }
 
-    private void writeTables(List<Table> tables, Appendable out) throws IOException {
+    private static void writeTables(List<Table> tables, TableStream tableStream) throws IOException {
+        for (Table table : tables) {
+            tableStream.writeTable(table);
+        }
+    }
+
+    private TableStream openTableStream(Appendable out) throws IOException {
         Writer writer = null;
         switch (outputFormat) {
             case CSV:
@@ -472,7 +557,7 @@ public class CommandLineApp {
                 writer = new TSVWriter();
                 break;
         }
-        writer.write(out, tables);
+        return writer.open(out);
     }
 
     private String getOutputFilename(File pdfFile) {
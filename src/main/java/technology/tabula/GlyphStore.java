@@ -0,0 +1,256 @@
+package technology.tabula;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+import org.apache.pdfbox.pdmodel.font.PDFont;
+
+/**
+ * The glyphs of a page, stored column by column: one array per attribute instead of one {@link TextElement}
+ * per glyph. Texts and fonts are stored once and referred to by index, as a page only uses a handful of them.
+ * This takes a fraction of the memory of the equivalent {@code List<TextElement>}; {@link TextElement}s are
+ * created on demand, see {@link #get(int)} and {@link #asTextElements()}.
+ */
+public final class GlyphStore {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private float[] tops = new float[INITIAL_CAPACITY];
+    private float[] lefts = new float[INITIAL_CAPACITY];
+    private float[] widths = new float[INITIAL_CAPACITY];
+    private float[] heights = new float[INITIAL_CAPACITY];
+    private float[] fontSizes = new float[INITIAL_CAPACITY];
+    private float[] widthsOfSpace = new float[INITIAL_CAPACITY];
+    private float[] directions = new float[INITIAL_CAPACITY];
+    private int[] textIds = new int[INITIAL_CAPACITY];
+    private int[] fontIds = new int[INITIAL_CAPACITY];
+    private int size;
+
+    private final List<String> texts;
+    private final Map<String, Integer> textIdsByText;
+    // fonts are kept as given, so that the text elements created from here refer to the very same objects
+    private final List<PDFont> fonts;
+    private final Map<PDFont, Integer> fontIdsByFont;
+
+    public GlyphStore() {
+        this(new ArrayList<String>(), new HashMap<String, Integer>(), new ArrayList<PDFont>(), new IdentityHashMap<PDFont, Integer>());
+    }
+
+    private GlyphStore(List<String> texts, Map<String, Integer> textIdsByText, List<PDFont> fonts, Map<PDFont, Integer> fontIdsByFont) {
+        this.texts = texts;
+        this.textIdsByText = textIdsByText;
+        this.fonts = fonts;
+        this.fontIdsByFont = fontIdsByFont;
+    }
+
+    public static GlyphStore of(List<TextElement> textElements) {
+        GlyphStore glyphs = new GlyphStore();
+        for (TextElement te : textElements) {
+            glyphs.add(te);
+        }
+        return glyphs;
+    }
+
+    // - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - //
+    public void add(float top, float left, float width, float height,
+                    PDFont font, float fontSize, String text, float widthOfSpace, float direction) {
+        ensureCapacity(size + 1);
+        tops[size] = top;
+        lefts[size] = left;
+        widths[size] = width;
+        heights[size] = height;
+        fontSizes[size] = fontSize;
+        widthsOfSpace[size] = widthOfSpace;
+        directions[size] = direction;
+        textIds[size] = idOf(text, texts, textIdsByText);
+        fontIds[size] = idOf(font, fonts, fontIdsByFont);
+        size++;
+    }
+
+    public void add(TextElement te) {
+        add(te.y, te.x, te.width, te.height, te.getFont(), te.getFontSize(), te.getText(), te.getWidthOfSpace(), te.getDirection());
+    }
+
+    private static <T> int idOf(T value, List<T> values, Map<T, Integer> ids) {
+        Integer id = ids.get(value);
+        if (id == null) {
+            id = values.size();
+            values.add(value);
+            ids.put(value, id);
+        }
+        return id;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= tops.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, tops.length * 2);
+        tops = Arrays.copyOf(tops, newCapacity);
+        lefts = Arrays.copyOf(lefts, newCapacity);
+        widths = Arrays.copyOf(widths, newCapacity);
+        heights = Arrays.copyOf(heights, newCapacity);
+        fontSizes = Arrays.copyOf(fontSizes, newCapacity);
+        widthsOfSpace = Arrays.copyOf(widthsOfSpace, newCapacity);
+        directions = Arrays.copyOf(directions, newCapacity);
+        textIds = Arrays.copyOf(textIds, newCapacity);
+        fontIds = Arrays.copyOf(fontIds, newCapacity);
+    }
+
+    // - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - //
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public float getTop(int i) {
+        checkIndex(i);
+        return tops[i];
+    }
+
+    public float getLeft(int i) {
+        checkIndex(i);
+        return lefts[i];
+    }
+
+    public float getWidth(int i) {
+        checkIndex(i);
+        return widths[i];
+    }
+
+    public float getHeight(int i) {
+        checkIndex(i);
+        return heights[i];
+    }
+
+    public String getText(int i) {
+        checkIndex(i);
+        return texts.get(textIds[i]);
+    }
+
+    public PDFont getFont(int i) {
+        checkIndex(i);
+        return fonts.get(fontIds[i]);
+    }
+
+    public float getFontSize(int i) {
+        checkIndex(i);
+        return fontSizes[i];
+    }
+
+    public float getWidthOfSpace(int i) {
+        checkIndex(i);
+        return widthsOfSpace[i];
+    }
+
+    public float getDirection(int i) {
+        checkIndex(i);
+        return directions[i];
+    }
+
+    private void checkIndex(int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + size);
+        }
+    }
+
+    // - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - //
+
+    /**
+     * @return a new TextElement for the i-th glyph
+     */
+    public TextElement get(int i) {
+        checkIndex(i);
+        return new TextElement(tops[i], lefts[i], widths[i], heights[i], fonts.get(fontIds[i]), fontSizes[i],
+                texts.get(textIds[i]), widthsOfSpace[i], directions[i]);
+    }
+
+    /**
+     * A read-only view of the glyphs as TextElements, each one created when it's read; to go through
+     * them once without keeping them all around.
+     */
+    public List<TextElement> asTextElements() {
+        return new TextElementView();
+    }
+
+    /**
+     * @return a new list with a TextElement for each glyph
+     */
+    public List<TextElement> toTextElements() {
+        List<TextElement> textElements = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            textElements.add(get(i));
+        }
+        return textElements;
+    }
+
+    /**
+     * @return the same glyphs, in the order {@code comparator} sorts their TextElements in (with {@link Utils#sort})
+     */
+    public GlyphStore sorted(Comparator<? super TextElement> comparator) {
+        List<IndexedTextElement> textElements = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            textElements.add(new IndexedTextElement(this, i));
+        }
+        Utils.sort(textElements, comparator);
+
+        GlyphStore sorted = new GlyphStore(texts, textIdsByText, fonts, fontIdsByFont);
+        sorted.ensureCapacity(size);
+        for (IndexedTextElement te : textElements) {
+            sorted.copy(this, te.index);
+        }
+        return sorted;
+    }
+
+    private void copy(GlyphStore from, int i) {
+        tops[size] = from.tops[i];
+        lefts[size] = from.lefts[i];
+        widths[size] = from.widths[i];
+        heights[size] = from.heights[i];
+        fontSizes[size] = from.fontSizes[i];
+        widthsOfSpace[size] = from.widthsOfSpace[i];
+        directions[size] = from.directions[i];
+        textIds[size] = from.textIds[i];
+        fontIds[size] = from.fontIds[i];
+        size++;
+    }
+
+    // remembers where it comes from; all of them being of the same class, they compare as plain TextElements
+    @SuppressWarnings("serial")
+    private static final class IndexedTextElement extends TextElement {
+
+        final int index;
+
+        IndexedTextElement(GlyphStore glyphs, int i) {
+            super(glyphs.tops[i], glyphs.lefts[i], glyphs.widths[i], glyphs.heights[i], glyphs.fonts.get(glyphs.fontIds[i]),
+                    glyphs.fontSizes[i], glyphs.texts.get(glyphs.textIds[i]), glyphs.widthsOfSpace[i], glyphs.directions[i]);
+            this.index = i;
+        }
+
+    }
+
+    private final class TextElementView extends AbstractList<TextElement> implements RandomAccess {
+
+        @Override
+        public TextElement get(int index) {
+            return GlyphStore.this.get(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+    }
+
+}
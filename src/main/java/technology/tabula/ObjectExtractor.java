@@ -8,47 +8,76 @@ import org.apache.pdfbox.pdmodel.PDPage;
 public class ObjectExtractor implements java.io.Closeable {
 
     private final PDDocument pdfDocument;
+    private boolean coalesceRulings;
+    private float minimumRulingLength;
 
     public ObjectExtractor(PDDocument pdfDocument) {
         this.pdfDocument = pdfDocument;
     }
 
+    /**
+     * When set, rulings are coalesced as the page is painted: a filled rectangle no thicker than a hairline makes a
+     * single ruling along its middle, and a ruling overlapping or nearly touching the last one painted along the same
+     * line is merged into it. Pages with dashed borders, or borders drawn as thin rectangles, then hand a fraction of
+     * the rulings to {@link Page#getRulings()} and the extraction algorithms. Off by default, as the rulings found
+     * may move by a fraction of a point, and the tables built on them with it.
+     */
+    public void setCoalesceRulings(boolean coalesceRulings) {
+        this.coalesceRulings = coalesceRulings;
+    }
+
+    /**
+     * Rulings shorter than this once the page has been painted, and coalesced if asked to, are dropped. 0, the
+     * default, keeps them all.
+     */
+    public void setMinimumRulingLength(float minimumRulingLength) {
+        if (minimumRulingLength < 0) {
+            throw new IllegalArgumentException("minimumRulingLength must not be negative");
+        }
+        this.minimumRulingLength = minimumRulingLength;
+    }
+
     // - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - //
     protected Page extractPage(Integer pageNumber) throws IOException {
         if (pageNumber > pdfDocument.getNumberOfPages() || pageNumber < 1) {
             throw new java.lang.IndexOutOfBoundsException("Page number does not exist.");
         }
-        PDPage page = pdfDocument.getPage(pageNumber - 1);
-
-        ObjectExtractorStreamEngine streamEngine = new ObjectExtractorStreamEngine(page);
-        streamEngine.processPage(page);
-
-        TextStripper textStripper = new TextStripper(pdfDocument, pageNumber);
-        textStripper.process();
+        PDPage page;
+        TextStripper textStripper;
+        float width, height;
+        int rotation;
+        // the pages of a prefetching iterator may be used, rendered say, while the next one is read here
+        synchronized (pdfDocument) {
+            page = pdfDocument.getPage(pageNumber - 1);
 
-        Utils.sort(textStripper.getTextElements(), Rectangle.ILL_DEFINED_ORDER);
+            // Text and rulings are collected in a single pass over the content stream.
+            textStripper = new TextStripper(pdfDocument, pageNumber, true);
+            textStripper.setCoalesceRulings(coalesceRulings);
+            textStripper.setMinimumRulingLength(minimumRulingLength);
+            textStripper.process();
 
-        float width, height;
-        int rotation = page.getRotation();
-        if (Math.abs(rotation) == 90 || Math.abs(rotation) == 270) {
-            width = page.getCropBox().getHeight();
-            height = page.getCropBox().getWidth();
-        } else {
-            width = page.getCropBox().getWidth();
-            height = page.getCropBox().getHeight();
+            rotation = page.getRotation();
+            if (Math.abs(rotation) == 90 || Math.abs(rotation) == 270) {
+                width = page.getCropBox().getHeight();
+                height = page.getCropBox().getWidth();
+            } else {
+                width = page.getCropBox().getWidth();
+                height = page.getCropBox().getHeight();
+            }
         }
 
+        GlyphStore glyphs = textStripper.getGlyphs().sorted(Rectangle.ILL_DEFINED_ORDER);
+
         return Page.Builder.newInstance()
                 .withPageDims(PageDims.of(0, 0, width, height))
                 .withRotation(rotation)
                 .withNumber(pageNumber)
                 .withPdPage(page)
                 .withPdDocument(pdfDocument)
-                .withRulings(streamEngine.rulings)
-                .withTextElements(textStripper.getTextElements())
+                .withRulings(textStripper.getRulings())
+                .withGlyphs(glyphs)
                 .withMinCharWidth(textStripper.getMinCharWidth())
                 .withMinCharHeight(textStripper.getMinCharHeight())
-                .withIndex(textStripper.getSpatialIndex())
                 .build();
     }
 
@@ -65,6 +94,20 @@ public class ObjectExtractor implements java.io.Closeable {
         return extract(Utils.range(pageNumber, pageNumber + 1)).next();
     }
 
+    /**
+     * Extracts {@code pages} on a background thread, staying at most {@code prefetchDepth} pages
+     * ahead of the caller. The returned iterator must be closed; until then this document must not
+     * be used from other threads.
+     * <p>
+     * The document is read with its lock held, so the pages handed out can be used while the next ones are being
+     * read, including by {@link technology.tabula.detectors.NurminenDetectionAlgorithm}, which renders them with the
+     * lock held too. Other code using {@link Page#getPDDoc()} or {@link Page#getPDPage()} of these pages meanwhile
+     * must synchronize on {@link Page#getPDDoc()} likewise.
+     */
+    public PrefetchingPageIterator extract(Iterable<Integer> pages, int prefetchDepth) {
+        return PrefetchingPageIterator.singleThreaded(this, pages, prefetchDepth);
+    }
+
     // - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - //
     public void close() throws IOException {
         pdfDocument.close();
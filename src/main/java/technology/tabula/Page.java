@@ -2,9 +2,13 @@ package technology.tabula;
 
 import java.awt.geom.Point2D;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
 
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
@@ -21,19 +25,23 @@ public class Page extends Rectangle {
     private float minCharWidth;
     private float minCharHeight;
 
+    // the page's text is kept as glyphs; the TextElements and their index are only created if asked for
+    private GlyphStore glyphs;
     private List<TextElement> textElements;
 
-    // TODO: Create a class for 'List <Ruling>' that encapsulates all of these lists and their behaviors?
-    private List<Ruling> rulings,
-            cleanRulings = null,
-            verticalRulingLines = null,
-            horizontalRulingLines = null;
+    private List<Ruling> rulings;
+    // snapped and collapsed; rulings added afterwards are merged in
+    private RulingSet cleanRulings = null;
 
     private PDPage pdPage;
     private PDDocument pdDoc;
 
     private RectangleSpatialIndex<TextElement> spatialIndex;
 
+    // set for an area of another page: its text and rulings are taken from that page when first needed, and its
+    // minimum character sizes are NaN until worked out
+    private Page parent;
+
     private static final float DEFAULT_MIN_CHAR_LENGTH = 7;
 
     private Page(
@@ -42,6 +50,7 @@ public class Page extends Rectangle {
             int number,
             PDPage pdPage,
             PDDocument doc,
+            GlyphStore glyphs,
             List<TextElement> characters,
             List<Ruling> rulings,
             float minCharWidth,
@@ -53,6 +62,7 @@ public class Page extends Rectangle {
         this.number = number;
         this.pdPage = pdPage;
         this.pdDoc = doc;
+        this.glyphs = glyphs;
         this.textElements = characters;
         this.rulings = rulings;
         this.minCharWidth = minCharWidth;
@@ -112,27 +122,21 @@ public class Page extends Rectangle {
     }
 
     // - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - //
+    /**
+     * @return the part of this page within {@code area}, as a view of it: the text and rulings within the area are
+     * looked up when first needed, and share this page's index.
+     */
     public Page getArea(Rectangle area) {
-        List<TextElement> areaTextElements = getText(area);
-
-        float minimumCharWidth = getMinimumCharWidthFrom(areaTextElements);
-        float minimumCharHeight = getMinimumCharHeightFrom(areaTextElements);
-
-        final Page page = Page.Builder.newInstance()
+        Page page = Page.Builder.newInstance()
                 .withPageDims(PageDims.of(area.getTop(), area.getLeft(), (float) area.getWidth(), (float) area.getHeight()))
                 .withRotation(rotation)
                 .withNumber(number)
                 .withPdPage(pdPage)
                 .withPdDocument(pdDoc)
-                .withTextElements(areaTextElements)
-                .withRulings(Ruling.cropRulingsToArea(getRulings(), area))
-                .withMinCharWidth(minimumCharWidth)
-                .withMinCharHeight(minimumCharHeight)
-                .withIndex(spatialIndex)
                 .build();
-
-        addBorderRulingsTo(page);
-
+        page.parent = this;
+        page.minCharWidth = java.lang.Float.NaN;
+        page.minCharHeight = java.lang.Float.NaN;
         return page;
     }
 
@@ -150,15 +154,13 @@ public class Page extends Rectangle {
         return DEFAULT_MIN_CHAR_LENGTH;
     }
 
-    private void addBorderRulingsTo(Page page) {
-        Point2D.Double leftTop = new Point2D.Double(page.getLeft(), page.getTop()),
-                rightTop = new Point2D.Double(page.getRight(), page.getTop()),
-                rightBottom = new Point2D.Double(page.getRight(), page.getBottom()),
-                leftBottom = new Point2D.Double(page.getLeft(), page.getBottom());
-        page.addRuling(new Ruling(leftTop, rightTop));
-        page.addRuling(new Ruling(rightTop, rightBottom));
-        page.addRuling(new Ruling(rightBottom, leftBottom));
-        page.addRuling(new Ruling(leftBottom, leftTop));
+    private List<Ruling> borderRulings() {
+        Point2D.Double leftTop = new Point2D.Double(getLeft(), getTop()),
+                rightTop = new Point2D.Double(getRight(), getTop()),
+                rightBottom = new Point2D.Double(getRight(), getBottom()),
+                leftBottom = new Point2D.Double(getLeft(), getBottom());
+        return Arrays.asList(new Ruling(leftTop, rightTop), new Ruling(rightTop, rightBottom),
+                new Ruling(rightBottom, leftBottom), new Ruling(leftBottom, leftTop));
     }
 
     public Page getArea(float top, float left, float bottom, float right) {
@@ -180,7 +182,7 @@ public class Page extends Rectangle {
      */
     @Deprecated
     public float getMinCharWidth() {
-        return minCharWidth;
+        return minCharWidth();
     }
 
     /**
@@ -188,16 +190,66 @@ public class Page extends Rectangle {
      */
     @Deprecated
     public float getMinCharHeight() {
+        return minCharHeight();
+    }
+
+    private float minCharWidth() {
+        if (java.lang.Float.isNaN(minCharWidth)) {
+            minCharWidth = getMinimumCharWidthFrom(getText());
+        }
+        return minCharWidth;
+    }
+
+    private float minCharHeight() {
+        if (java.lang.Float.isNaN(minCharHeight)) {
+            minCharHeight = getMinimumCharHeightFrom(getText());
+        }
         return minCharHeight;
     }
 
     // - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - //
     public List<TextElement> getText() {
+        if (textElements == null && glyphs != null) {
+            textElements = glyphs.toTextElements();
+        } else if (textElements == null && parent != null) {
+            textElements = parent.getText(this);
+        }
         return textElements;
     }
 
     public List<TextElement> getText(Rectangle area) {
-        return spatialIndex.contains(area);
+        return index().contains(area);
+    }
+
+    /**
+     * The glyphs of this page. Going through them doesn't create the TextElements of {@link #getText()},
+     * see {@link GlyphStore#asTextElements()}.
+     */
+    public GlyphStore getGlyphs() {
+        if (glyphs == null) {
+            glyphs = getText() == null ? new GlyphStore() : GlyphStore.of(getText());
+        }
+        return glyphs;
+    }
+
+    /**
+     * A read-only view of this page's TextElements, for going through them once: the ones of {@link #getText()}
+     * if they've been created already, otherwise created from the glyphs as they're read and not kept.
+     */
+    public List<TextElement> getTextView() {
+        if (textElements == null && glyphs != null) {
+            return glyphs.asTextElements();
+        }
+        return getText() == null ? null : Collections.unmodifiableList(getText());
+    }
+
+    // the page's text is in reading order already, which the index keeps; an area looks its text up in the whole
+    // page's, the grid of which only has the cells it covers gone through
+    private RectangleSpatialIndex<TextElement> index() {
+        if (spatialIndex == null) {
+            spatialIndex = parent != null ? parent.index() : RectangleSpatialIndex.of(getText());
+        }
+        return spatialIndex;
     }
 
     /**
@@ -213,7 +265,7 @@ public class Page extends Rectangle {
      */
     @Deprecated
     public List<TextElement> getTexts() {
-        return textElements;
+        return getText();
     }
 
     /**
@@ -233,34 +285,46 @@ public class Page extends Rectangle {
      */
     @Deprecated
     public boolean hasText() {
-        return textElements.size() > 0;
+        return getText().size() > 0;
     }
 
     // - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - //
     public List<Ruling> getRulings() {
+        return getRulingSet().getRulings();
+    }
+
+    /**
+     * @return the rulings of {@link #getRulings()}, to be looked up by position
+     */
+    public RulingSet getRulingSet() {
         if (cleanRulings != null) {
             return cleanRulings;
         }
 
+        List<Ruling> rulings = rulings();
         if (rulings == null || rulings.isEmpty()) {
-            verticalRulingLines = new ArrayList<>();
-            horizontalRulingLines = new ArrayList<>();
-            return new ArrayList<>();
+            return RulingSet.of(new ArrayList<Ruling>(), new ArrayList<Ruling>());
         }
 
         // TODO: Move as a static method to the Ruling class?
-        Utils.snapPoints(rulings, minCharWidth, minCharHeight);
+        Utils.snapPoints(rulings, minCharWidth(), minCharHeight());
 
-        verticalRulingLines = getCollapsedVerticalRulings();
-        horizontalRulingLines = getCollapsedHorizontalRulings();
-
-        cleanRulings = new ArrayList<>(verticalRulingLines);
-        cleanRulings.addAll(horizontalRulingLines);
+        // collapsing moves rulings, so the verticals go first as they always have
+        List<Ruling> verticalRulings = getCollapsedVerticalRulings();
+        cleanRulings = RulingSet.of(getCollapsedHorizontalRulings(), verticalRulings);
 
         return cleanRulings;
     }
 
-    // TODO: Create a class for 'List <Ruling>' and encapsulate these behaviors within it?
+    // an area's are this page's within it, clipped, and its border
+    private List<Ruling> rulings() {
+        if (rulings == null && parent != null) {
+            rulings = new ArrayList<>(parent.getRulingSet().crop(this).getRulings());
+            rulings.addAll(borderRulings());
+        }
+        return rulings;
+    }
+
     private List<Ruling> getCollapsedVerticalRulings() {
         List<Ruling> verticalRulings = new ArrayList<>();
         for (Ruling ruling : rulings) {
@@ -282,34 +346,106 @@ public class Page extends Rectangle {
     }
 
     public List<Ruling> getVerticalRulings() {
-        if (verticalRulingLines != null) {
-            return verticalRulingLines;
-        }
-        getRulings();
-        return verticalRulingLines;
+        return getRulingSet().getVerticals();
     }
 
     public List<Ruling> getHorizontalRulings() {
-        if (horizontalRulingLines != null) {
-            return horizontalRulingLines;
-        }
-        getRulings();
-        return horizontalRulingLines;
+        return getRulingSet().getHorizontals();
     }
 
     public void addRuling(Ruling ruling) {
-        if (ruling.oblique()) {
-            throw new UnsupportedOperationException("Can't add an oblique ruling.");
+        addRulings(Collections.singletonList(ruling));
+    }
+
+    /**
+     * Adds horizontal and vertical rulings, such as column boundaries. Once the page's rulings have been snapped and
+     * collapsed, the new ones are snapped to them and merged in, rather than all of them being worked out again.
+     */
+    public void addRulings(Collection<Ruling> added) {
+        for (Ruling ruling : added) {
+            if (ruling.oblique()) {
+                throw new UnsupportedOperationException("Can't add an oblique ruling.");
+            }
+        }
+        rulings().addAll(added);
+        if (cleanRulings != null) {
+            snapToRulingSet(added);
+            cleanRulings = RulingSet.of(collapseInto(cleanRulings, added, true), collapseInto(cleanRulings, added, false));
+        }
+    }
+
+    // moves the ends of the rulings onto the nearest of the page's lines, within the thresholds snapPoints uses
+    private void snapToRulingSet(Collection<Ruling> added) {
+        for (Ruling ruling : added) {
+            ruling.setLine(snapX(ruling.x1), snapY(ruling.y1), snapX(ruling.x2), snapY(ruling.y2));
+        }
+    }
+
+    private float snapX(float x) {
+        return snap(x, cleanRulings.getVerticalsBetween(x - minCharWidth(), x + minCharWidth()), false, minCharWidth());
+    }
+
+    private float snapY(float y) {
+        return snap(y, cleanRulings.getHorizontalsBetween(y - minCharHeight(), y + minCharHeight()), true, minCharHeight());
+    }
+
+    private static float snap(float coordinate, List<Ruling> lines, boolean horizontal, float threshold) {
+        float snapped = coordinate, distance = threshold;
+        for (Ruling line : lines) {
+            float position = horizontal ? line.getTop() : line.getLeft();
+            if (Math.abs(position - coordinate) < distance) {
+                distance = Math.abs(position - coordinate);
+                snapped = position;
+            }
         }
-        rulings.add(ruling);
-        // Clear caches:
-        verticalRulingLines = null;
-        horizontalRulingLines = null;
-        cleanRulings = null;
+        return snapped;
+    }
+
+    // collapses the added rulings of one orientation with those already on their lines, keeping the list in the
+    // order collapseOrientedRulings leaves it
+    private static List<Ruling> collapseInto(RulingSet set, Collection<Ruling> added, boolean horizontal) {
+        List<Ruling> collapsed = horizontal ? set.horizontalsInOrder() : set.verticalsInOrder();
+        List<Ruling> group = new ArrayList<>();
+        for (Ruling ruling : added) {
+            if (horizontal ? ruling.horizontal() : ruling.vertical()) {
+                group.add(ruling);
+            }
+        }
+        if (group.isEmpty()) {
+            return collapsed;
+        }
+
+        // the rulings the added ones may be merged with
+        Set<Ruling> onTheirLines = Collections.newSetFromMap(new IdentityHashMap<Ruling, Boolean>());
+        for (Ruling ruling : group) {
+            float position = ruling.getPosition();
+            for (Ruling line : horizontal ? set.getHorizontalsBetween(position - 1, position + 1)
+                    : set.getVerticalsBetween(position - 1, position + 1)) {
+                if (Utils.feq(line.getPosition(), position)) {
+                    onTheirLines.add(line);
+                }
+            }
+        }
+        group.addAll(onTheirLines);
+        List<Ruling> merged = Ruling.collapseOrientedRulings(group);
+
+        List<Ruling> rv = new ArrayList<>(collapsed.size() + merged.size());
+        int m = 0;
+        for (Ruling ruling : collapsed) {
+            if (onTheirLines.contains(ruling)) {
+                continue;
+            }
+            while (m < merged.size() && Ruling.POSITION_THEN_START.compare(merged.get(m), ruling) < 0) {
+                rv.add(merged.get(m++));
+            }
+            rv.add(ruling);
+        }
+        rv.addAll(merged.subList(m, merged.size()));
+        return rv;
     }
 
     public List<Ruling> getUnprocessedRulings() {
-        return rulings;
+        return rulings();
     }
 
     // - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - //
@@ -328,7 +464,7 @@ public class Page extends Rectangle {
      */
     @Deprecated
     public RectangleSpatialIndex<TextElement> getSpatialIndex() {
-        return spatialIndex;
+        return index();
     }
 
     public static class Builder {
@@ -337,6 +473,7 @@ public class Page extends Rectangle {
         private int number;
         private PDPage pdPage;
         private PDDocument pdDocument;
+        private GlyphStore glyphs;
         private List<TextElement> textElements;
         private List<Ruling> rulings;
         private float minCharWidth;
@@ -379,6 +516,16 @@ public class Page extends Rectangle {
             return this;
         }
 
+        /**
+         * The page's text, as an alternative to {@link #withTextElements(List)}; the TextElements and
+         * the index are then created from the glyphs when they're first needed.
+         */
+        public Builder withGlyphs(GlyphStore glyphs) {
+            this.glyphs = glyphs;
+
+            return this;
+        }
+
         public Builder withTextElements(List<TextElement> textElements) {
             this.textElements = textElements;
 
@@ -410,7 +557,7 @@ public class Page extends Rectangle {
         }
 
         public Page build() {
-            return new Page(pageDims, rotation, number, pdPage, pdDocument, textElements, rulings, minCharWidth, minCharHeight, index);
+            return new Page(pageDims, rotation, number, pdPage, pdDocument, glyphs, textElements, rulings, minCharWidth, minCharHeight, index);
         }
     }
 }
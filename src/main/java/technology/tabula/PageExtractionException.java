@@ -0,0 +1,28 @@
+package technology.tabula;
+
+import java.io.IOException;
+
+/**
+ * Thrown by {@link PrefetchingPageIterator} and {@link ParallelObjectExtractor} when a single page could not be
+ * extracted, whether reading it failed or PDFBox choked on it. The iterator stays usable afterwards, so callers can
+ * decide to skip the page and go on.
+ */
+@SuppressWarnings("serial")
+public class PageExtractionException extends RuntimeException {
+
+    private final int pageNumber;
+
+    public PageExtractionException(int pageNumber, IOException cause) {
+        this(pageNumber, (Throwable) cause);
+    }
+
+    public PageExtractionException(int pageNumber, Throwable cause) {
+        super("Could not extract page " + pageNumber + ": " + cause.getMessage(), cause);
+        this.pageNumber = pageNumber;
+    }
+
+    public int getPageNumber() {
+        return pageNumber;
+    }
+
+}
@@ -0,0 +1,178 @@
+package technology.tabula;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+
+/**
+ * Extracts pages concurrently on a caller supplied {@link ExecutorService}.
+ * <p>
+ * PDFBox documents are not thread safe, so every worker borrows its own {@link PDDocument}
+ * (at most {@code parallelism} of them are loaded from the same file). Pages are returned in
+ * the order they were requested.
+ * <p>
+ * The {@link Page#getPDPage()} and {@link Page#getPDDoc()} handles of the returned pages belong
+ * to those worker documents: they stay valid until {@link #close()} is called. While another
+ * extraction is running on this instance, code using them must synchronize on {@link Page#getPDDoc()},
+ * as page extraction and {@link technology.tabula.detectors.NurminenDetectionAlgorithm} do.
+ * <p>
+ * A page that can't be extracted makes {@link #extract(Iterable)} throw a {@link PageExtractionException}
+ * with its number.
+ */
+public class ParallelObjectExtractor implements java.io.Closeable {
+
+    private final File pdfFile;
+    private final String password;
+    private final ExecutorService executor;
+    private final int parallelism;
+
+    private final BlockingQueue<ObjectExtractor> idleExtractors = new LinkedBlockingQueue<>();
+    private final List<PDDocument> openDocuments = new ArrayList<>();
+    private int numberOfPages = -1;
+
+    public ParallelObjectExtractor(File pdfFile, ExecutorService executor) {
+        this(pdfFile, null, executor, Runtime.getRuntime().availableProcessors());
+    }
+
+    public ParallelObjectExtractor(File pdfFile, String password, ExecutorService executor, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be at least 1");
+        }
+        this.pdfFile = pdfFile;
+        this.password = password;
+        this.executor = executor;
+        this.parallelism = parallelism;
+    }
+
+    // - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - //
+    /**
+     * @throws PageExtractionException for the first of the pages that couldn't be extracted
+     */
+    public List<Page> extract(Iterable<Integer> pages) throws IOException {
+        List<Integer> pageNumbers = new ArrayList<>();
+        List<Future<Page>> futures = new ArrayList<>();
+        for (final Integer pageNumber : pages) {
+            pageNumbers.add(pageNumber);
+            futures.add(executor.submit(() -> extractPage(pageNumber)));
+        }
+
+        List<Page> rv = new ArrayList<>(futures.size());
+        try {
+            for (int i = 0; i < futures.size(); i++) {
+                rv.add(await(futures.get(i), pageNumbers.get(i)));
+            }
+        } finally {
+            for (Future<Page> future : futures) {
+                future.cancel(false);
+            }
+        }
+        return rv;
+    }
+
+    public List<Page> extract() throws IOException {
+        return extract(Utils.range(1, getNumberOfPages() + 1));
+    }
+
+    public Page extract(int pageNumber) throws IOException {
+        return extract(Utils.range(pageNumber, pageNumber + 1)).get(0);
+    }
+
+    /**
+     * Lazy variant of {@link #extract(Iterable)}: at most {@code prefetchDepth} pages are being
+     * extracted, or waiting to be consumed, at any time.
+     */
+    public PrefetchingPageIterator iterator(Iterable<Integer> pages, int prefetchDepth) {
+        return new PrefetchingPageIterator(executor, false, this::extractPage, pages, prefetchDepth);
+    }
+
+    public int getNumberOfPages() throws IOException {
+        synchronized (openDocuments) {
+            if (numberOfPages < 0) {
+                idleExtractors.add(openExtractor());
+            }
+            return numberOfPages;
+        }
+    }
+
+    // - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - //
+    protected Page extractPage(int pageNumber) throws IOException {
+        ObjectExtractor extractor = acquire();
+        try {
+            return extractor.extractPage(pageNumber);
+        } finally {
+            idleExtractors.add(extractor);
+        }
+    }
+
+    private ObjectExtractor acquire() throws IOException {
+        ObjectExtractor extractor = idleExtractors.poll();
+        if (extractor != null) {
+            return extractor;
+        }
+        synchronized (openDocuments) {
+            if (openDocuments.size() < parallelism) {
+                return openExtractor();
+            }
+        }
+        try {
+            return idleExtractors.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a document");
+        }
+    }
+
+    // must hold the openDocuments lock
+    private ObjectExtractor openExtractor() throws IOException {
+        PDDocument document = password == null ? Loader.loadPDF(pdfFile) : Loader.loadPDF(pdfFile, password);
+        openDocuments.add(document);
+        numberOfPages = document.getNumberOfPages();
+        return new ObjectExtractor(document);
+    }
+
+    // whatever extracting the page threw comes with its number; only errors, out of memory say, are rethrown as is
+    static Page await(Future<Page> future, int pageNumber) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PageExtractionException(pageNumber, new InterruptedIOException("Interrupted while extracting pages"));
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new PageExtractionException(pageNumber, cause);
+        }
+    }
+
+    // - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - //
+    public void close() throws IOException {
+        IOException failure = null;
+        synchronized (openDocuments) {
+            for (PDDocument document : openDocuments) {
+                try {
+                    document.close();
+                } catch (IOException e) {
+                    failure = e;
+                }
+            }
+            openDocuments.clear();
+            idleExtractors.clear();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+}
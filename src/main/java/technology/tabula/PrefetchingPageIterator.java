@@ -0,0 +1,113 @@
+package technology.tabula;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Page iterator that extracts up to {@code prefetchDepth} pages ahead of the caller, so that
+ * parsing the next pages overlaps with whatever the caller does with the current one.
+ * <p>
+ * Unlike {@link PageIterator}, failures are not swallowed: {@link #next()} throws a
+ * {@link PageExtractionException} carrying the page number and the original exception, be it an
+ * {@link IOException} or a runtime exception thrown by PDFBox on a malformed page.
+ * At most {@code prefetchDepth} extracted pages are held by the iterator at any time.
+ */
+public class PrefetchingPageIterator implements Iterator<Page>, java.io.Closeable {
+
+    interface PageSource {
+        Page extractPage(int pageNumber) throws IOException;
+    }
+
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+    private final PageSource source;
+    private final Iterator<Integer> pageIndexIterator;
+    private final int prefetchDepth;
+    private final Deque<Pending> pending = new ArrayDeque<>();
+
+    private static final class Pending {
+        final int pageNumber;
+        final Future<Page> page;
+
+        Pending(int pageNumber, Future<Page> page) {
+            this.pageNumber = pageNumber;
+            this.page = page;
+        }
+    }
+
+    PrefetchingPageIterator(ExecutorService executor, boolean ownsExecutor, PageSource source,
+                            Iterable<Integer> pages, int prefetchDepth) {
+        if (prefetchDepth < 1) {
+            throw new IllegalArgumentException("prefetchDepth must be at least 1");
+        }
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
+        this.source = source;
+        this.pageIndexIterator = pages.iterator();
+        this.prefetchDepth = prefetchDepth;
+        fill();
+    }
+
+    /**
+     * Extraction of a single document has to be serialized, so the pages are prefetched by one
+     * background thread owned by the iterator.
+     */
+    static PrefetchingPageIterator singleThreaded(final ObjectExtractor extractor, Iterable<Integer> pages, int prefetchDepth) {
+        ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "tabula-page-prefetch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        return new PrefetchingPageIterator(executor, true, extractor::extractPage, pages, prefetchDepth);
+    }
+
+    // - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - //
+    @Override
+    public boolean hasNext() {
+        return !pending.isEmpty() || pageIndexIterator.hasNext();
+    }
+
+    @Override
+    public Page next() {
+        if (!this.hasNext()) {
+            throw new NoSuchElementException();
+        }
+        fill();
+        Pending next = pending.removeFirst();
+        fill();
+        return ParallelObjectExtractor.await(next.page, next.pageNumber);
+    }
+
+    private void fill() {
+        while (pending.size() < prefetchDepth && pageIndexIterator.hasNext()) {
+            final int pageNumber = pageIndexIterator.next();
+            pending.addLast(new Pending(pageNumber, executor.submit(() -> source.extractPage(pageNumber))));
+        }
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    // - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - //
+    /**
+     * Cancels the pages that are still being prefetched. Doesn't close the underlying document.
+     */
+    public void close() {
+        for (Pending p : pending) {
+            p.page.cancel(false);
+        }
+        pending.clear();
+        if (ownsExecutor) {
+            executor.shutdown();
+        }
+    }
+
+}
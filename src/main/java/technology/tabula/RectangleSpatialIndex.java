@@ -1,47 +1,187 @@
 package technology.tabula;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
-import org.locationtech.jts.geom.Envelope;
-import org.locationtech.jts.index.strtree.STRtree;
-
+/**
+ * Finds the rectangles within or intersecting an area. The index is a uniform grid, bulk-loaded from all the
+ * rectangles on the first query, so adding rectangles costs nothing until one is made.
+ * <p>
+ * Results come back in a fixed order, worked out once when the grid is built: {@link Rectangle#ILL_DEFINED_ORDER}
+ * for rectangles given to {@link #add}, or the order of the list given to {@link #of(List)}.
+ */
 public class RectangleSpatialIndex<T extends Rectangle> {
-    
 
-    private final STRtree si = new STRtree();
     private final List<T> rectangles = new ArrayList<>();
+    private boolean ordered;
+
+    // built on the first query: the rectangles in result order, their envelopes, and for each grid cell the
+    // positions of the rectangles overlapping it, cell after cell
+    private List<T> inOrder;
+    private float[] lefts, rights, tops, bottoms;
+    private float minX, minY, cellWidth, cellHeight;
+    private int columns, rows;
+    private int[] cellStarts, cellItems;
+    private int[] firstColumns, firstRows;
+
+    public RectangleSpatialIndex() {
+    }
+
+    /**
+     * @return an index of {@code rectangles}, whose query results come in the same order as that list
+     */
+    public static <T extends Rectangle> RectangleSpatialIndex<T> of(List<T> rectangles) {
+        RectangleSpatialIndex<T> index = new RectangleSpatialIndex<>();
+        index.rectangles.addAll(rectangles);
+        index.ordered = true;
+        return index;
+    }
 
     public void add(T te) {
         rectangles.add(te);
-        si.insert(new Envelope(te.getLeft(), te.getRight(), te.getBottom(), te.getTop()), te);
+        ordered = false;
+        inOrder = null;
     }
-    
-    public List<T> contains(Rectangle r) {
-        List<T> intersection = si.query(new Envelope(r.getLeft(), r.getRight(), r.getTop(), r.getBottom()));
-        List<T> rv = new ArrayList<T>();
-
-        for (T ir: intersection) {
-            if (r.contains(ir)) {
-                rv.add(ir);
-            }
-        }
 
-        Utils.sort(rv, Rectangle.ILL_DEFINED_ORDER);
-        return rv;
+    public List<T> contains(Rectangle r) {
+        return query(r, true);
     }
-    
+
     public List<T> intersects(Rectangle r) {
-      return si.query(new Envelope(r.getLeft(), r.getRight(), r.getTop(), r.getBottom()));
+        return query(r, false);
     }
-    
+
     /**
      * Minimum bounding box of all the Rectangles contained on this RectangleSpatialIndex
-     * 
+     *
      * @return a Rectangle
      */
     public Rectangle getBounds() {
         return Rectangle.boundingBoxOf(rectangles);
     }
 
+    // - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - //
+    private List<T> query(Rectangle r, boolean contained) {
+        if (inOrder == null) {
+            build();
+        }
+        List<T> rv = new ArrayList<>();
+        if (inOrder.isEmpty()) {
+            return rv;
+        }
+
+        float left = Math.min(r.getLeft(), r.getRight()), right = Math.max(r.getLeft(), r.getRight());
+        float top = Math.min(r.getTop(), r.getBottom()), bottom = Math.max(r.getTop(), r.getBottom());
+        int firstColumn = column(left), lastColumn = column(right);
+        int firstRow = row(top), lastRow = row(bottom);
+
+        int[] found = new int[16];
+        int count = 0;
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                int cell = row * columns + column;
+                for (int k = cellStarts[cell]; k < cellStarts[cell + 1]; k++) {
+                    int i = cellItems[k];
+                    // a rectangle spanning several cells is only looked at in the first of them within the query
+                    if (Math.max(firstColumns[i], firstColumn) != column || Math.max(firstRows[i], firstRow) != row) {
+                        continue;
+                    }
+                    if (lefts[i] > right || rights[i] < left || tops[i] > bottom || bottoms[i] < top) {
+                        continue;
+                    }
+                    if (contained && !r.contains(inOrder.get(i))) {
+                        continue;
+                    }
+                    if (count == found.length) {
+                        found = Arrays.copyOf(found, count * 2);
+                    }
+                    found[count++] = i;
+                }
+            }
+        }
+
+        Arrays.sort(found, 0, count);
+        for (int k = 0; k < count; k++) {
+            rv.add(inOrder.get(found[k]));
+        }
+        return rv;
+    }
+
+    private void build() {
+        inOrder = new ArrayList<>(rectangles);
+        if (!ordered) {
+            Utils.sort(inOrder, Rectangle.ILL_DEFINED_ORDER);
+        }
+
+        int n = inOrder.size();
+        lefts = new float[n];
+        rights = new float[n];
+        tops = new float[n];
+        bottoms = new float[n];
+        float maxX = -Float.MAX_VALUE, maxY = -Float.MAX_VALUE;
+        minX = Float.MAX_VALUE;
+        minY = Float.MAX_VALUE;
+        for (int i = 0; i < n; i++) {
+            T rectangle = inOrder.get(i);
+            lefts[i] = Math.min(rectangle.getLeft(), rectangle.getRight());
+            rights[i] = Math.max(rectangle.getLeft(), rectangle.getRight());
+            tops[i] = Math.min(rectangle.getTop(), rectangle.getBottom());
+            bottoms[i] = Math.max(rectangle.getTop(), rectangle.getBottom());
+            minX = Math.min(minX, lefts[i]);
+            maxX = Math.max(maxX, rights[i]);
+            minY = Math.min(minY, tops[i]);
+            maxY = Math.max(maxY, bottoms[i]);
+        }
+
+        // about one cell per rectangle, as square as the rectangles' extent allows
+        float width = maxX - minX, height = maxY - minY;
+        if (n == 0 || !(width > 0)) {
+            columns = 1;
+        } else if (!(height > 0)) {
+            columns = n;
+        } else {
+            columns = (int) Math.max(1, Math.min(n, Math.ceil(Math.sqrt(n * (double) width / height))));
+        }
+        rows = Math.max(1, (n + columns - 1) / columns);
+        if (!(height > 0)) {
+            rows = 1;
+        }
+        cellWidth = width > 0 ? width / columns : 1;
+        cellHeight = height > 0 ? height / rows : 1;
+
+        cellStarts = new int[columns * rows + 1];
+        firstColumns = new int[n];
+        firstRows = new int[n];
+        for (int i = 0; i < n; i++) {
+            firstColumns[i] = column(lefts[i]);
+            firstRows[i] = row(tops[i]);
+            for (int row = firstRows[i]; row <= row(bottoms[i]); row++) {
+                for (int column = firstColumns[i]; column <= column(rights[i]); column++) {
+                    cellStarts[row * columns + column + 1]++;
+                }
+            }
+        }
+        for (int cell = 0; cell < columns * rows; cell++) {
+            cellStarts[cell + 1] += cellStarts[cell];
+        }
+        cellItems = new int[cellStarts[columns * rows]];
+        int[] next = Arrays.copyOf(cellStarts, columns * rows);
+        for (int i = 0; i < n; i++) {
+            for (int row = firstRows[i]; row <= row(bottoms[i]); row++) {
+                for (int column = firstColumns[i]; column <= column(rights[i]); column++) {
+                    cellItems[next[row * columns + column]++] = i;
+                }
+            }
+        }
+    }
+
+    private int column(float x) {
+        return Math.max(0, Math.min(columns - 1, (int) ((x - minX) / cellWidth)));
+    }
+
+    private int row(float y) {
+        return Math.max(0, Math.min(rows - 1, (int) ((y - minY) / cellHeight)));
+    }
+
 }
@@ -19,6 +19,7 @@ public class RectangularTextContainer<T extends Rectangle & HasText> extends Rec
 			this.getTextElements().addAll(0, other.getTextElements());
 		}
 		super.merge(other);
+		textElementsChanged();
 		return this;
 	}
 
@@ -28,6 +29,14 @@ public class RectangularTextContainer<T extends Rectangle & HasText> extends Rec
 
 	public void setTextElements(List<T> textElements) {
 		this.textElements = textElements;
+		textElementsChanged();
+	}
+
+	/**
+	 * Called whenever text elements are added or replaced, so that subclasses can drop what they
+	 * computed from them.
+	 */
+	protected void textElementsChanged() {
 	}
 
 	@Override
@@ -4,6 +4,7 @@ import java.awt.geom.Line2D;
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Formatter;
@@ -302,45 +303,46 @@ public class Ruling extends Line2D.Float {
     // log(n) implementation of find_intersections
     // based on http://people.csail.mit.edu/indyk/6.838-old/handouts/lec2.pdf
     public static Map<Point2D, Ruling[]> findIntersections(List<Ruling> horizontals, List<Ruling> verticals) {
+        return findIntersectionPoints(horizontals, verticals).toMap();
+    }
+
+    /**
+     * Finds the same intersections as {@link #findIntersections}, without a map entry, a point and two expanded
+     * rulings for each of them.
+     * <p>
+     * Sweeps left to right keeping the horizontal rulings under the sweep line in a tree keyed by their top, so each
+     * vertical ruling only looks at the horizontals within its own span.
+     */
+    public static RulingIntersections findIntersectionPoints(List<Ruling> horizontals, List<Ruling> verticals) {
         
         class SortObject {
             protected SOType type;
             protected float position;
             protected Ruling ruling;
+            protected int index;
             
-            public SortObject(SOType type, float position, Ruling ruling) {
+            public SortObject(SOType type, float position, Ruling ruling, int index) {
                 this.type = type;
                 this.position = position;
                 this.ruling = ruling;
+                this.index = index;
             }
         }
         
         List<SortObject> sos = new ArrayList<>();
         
-        TreeMap<Ruling, Boolean> tree = new TreeMap<>(new Comparator<Ruling>() {
-            @Override
-            public int compare(Ruling o1, Ruling o2) {
-                return java.lang.Double.compare(o1.getTop(), o2.getTop());
-            }});
-        
-        TreeMap<Point2D, Ruling[]> rv = new TreeMap<>(new Comparator<Point2D>() {
-            @Override
-            public int compare(Point2D o1, Point2D o2) {
-                if (o1.getY() > o2.getY()) return  1;
-                if (o1.getY() < o2.getY()) return -1;
-                if (o1.getX() > o2.getX()) return  1;
-                if (o1.getX() < o2.getX()) return -1;
-                return 0;
-            }
-        });
+        // tops of the horizontals under the sweep line; of several at the same top, the first one to start
+        TreeMap<java.lang.Float, Integer> tree = new TreeMap<>();
         
-        for (Ruling h : horizontals) {
-            sos.add(new SortObject(SOType.HLEFT, h.getLeft() - PERPENDICULAR_PIXEL_EXPAND_AMOUNT, h));
-            sos.add(new SortObject(SOType.HRIGHT, h.getRight() + PERPENDICULAR_PIXEL_EXPAND_AMOUNT, h));
+        for (int i = 0; i < horizontals.size(); i++) {
+            Ruling h = horizontals.get(i);
+            sos.add(new SortObject(SOType.HLEFT, h.getLeft() - PERPENDICULAR_PIXEL_EXPAND_AMOUNT, h, i));
+            sos.add(new SortObject(SOType.HRIGHT, h.getRight() + PERPENDICULAR_PIXEL_EXPAND_AMOUNT, h, i));
         }
 
-        for (Ruling v : verticals) {
-            sos.add(new SortObject(SOType.VERTICAL, v.getLeft(), v));
+        for (int i = 0; i < verticals.size(); i++) {
+            Ruling v = verticals.get(i);
+            sos.add(new SortObject(SOType.VERTICAL, v.getLeft(), v, i));
         }
         
         Collections.sort(sos, new Comparator<SortObject>() {
@@ -371,45 +373,138 @@ public class Ruling extends Line2D.Float {
             }
         });
         
+        // expanded once, when first needed
+        Ruling[] expandedHorizontals = new Ruling[horizontals.size()];
+        Ruling[] expandedVerticals = new Ruling[verticals.size()];
+        IntersectionBuffer found = new IntersectionBuffer();
+        
         for (SortObject so : sos) {
             switch(so.type) {
             case VERTICAL:
-                for (Map.Entry<Ruling, Boolean> h : tree.entrySet()) {
-                    Point2D i = h.getKey().intersectionPoint(so.ruling);
-                    if (i == null) {
+                // an expanded horizontal can only cross the expanded vertical within its span, give or take a pixel
+                float slack = PERPENDICULAR_PIXEL_EXPAND_AMOUNT + 1;
+                float from = Math.min(so.ruling.getTop(), so.ruling.getBottom()) - slack;
+                float to = Math.max(so.ruling.getTop(), so.ruling.getBottom()) + slack;
+                for (Integer h : tree.subMap(from, true, to, true).values()) {
+                    if (expandedHorizontals[h] == null) {
+                        expandedHorizontals[h] = horizontals.get(h).expand(PERPENDICULAR_PIXEL_EXPAND_AMOUNT);
+                    }
+                    if (expandedVerticals[so.index] == null) {
+                        expandedVerticals[so.index] = so.ruling.expand(PERPENDICULAR_PIXEL_EXPAND_AMOUNT);
+                    }
+                    Ruling this_l = expandedHorizontals[h], other_l = expandedVerticals[so.index];
+                    if (!this_l.intersectsLine(other_l)) {
                         continue;
                     }
-                    rv.put(i, 
-                           new Ruling[] { h.getKey().expand(PERPENDICULAR_PIXEL_EXPAND_AMOUNT), 
-                                          so.ruling.expand(PERPENDICULAR_PIXEL_EXPAND_AMOUNT) });
+                    // as in intersectionPoint
+                    if (this_l.horizontal() && other_l.vertical()) {
+                        found.add(other_l.getLeft(), this_l.getTop(), h, so.index);
+                    }
+                    else if (this_l.vertical() && other_l.horizontal()) {
+                        found.add(this_l.getLeft(), other_l.getTop(), h, so.index);
+                    }
+                    else {
+                        throw new IllegalArgumentException("lines must be orthogonal, vertical and horizontal");
+                    }
                 }
                 break;
             case HRIGHT:
-                tree.remove(so.ruling);
+                tree.remove(so.ruling.getTop());
                 break;
             case HLEFT:
-                tree.put(so.ruling, true);
+                tree.putIfAbsent(so.ruling.getTop(), so.index);
                 break;
             }
         }
         
-        return rv;
+        return found.build(expandedHorizontals, expandedVerticals);
         
     }
 
+    /**
+     * Collects intersections in the order they are found, then sorts them by point: of several found at the same
+     * point, the point of the first one is kept, with the rulings of the last one.
+     */
+    private static final class IntersectionBuffer {
+        private float[] xs = new float[16], ys = new float[16];
+        private int[] horizontals = new int[16], verticals = new int[16];
+        private int size;
+
+        void add(float x, float y, int horizontal, int vertical) {
+            if (size == xs.length) {
+                xs = Arrays.copyOf(xs, size * 2);
+                ys = Arrays.copyOf(ys, size * 2);
+                horizontals = Arrays.copyOf(horizontals, size * 2);
+                verticals = Arrays.copyOf(verticals, size * 2);
+            }
+            xs[size] = x;
+            ys[size] = y;
+            horizontals[size] = horizontal;
+            verticals[size] = vertical;
+            size++;
+        }
+
+        RulingIntersections build(Ruling[] expandedHorizontals, Ruling[] expandedVerticals) {
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            // stable, so points found at the same place stay in the order they were found
+            Arrays.sort(order, new Comparator<Integer>() {
+                @Override
+                public int compare(Integer a, Integer b) {
+                    return comparePoints(a, b);
+                }
+            });
+
+            int count = 0;
+            for (int k = 0; k < size; k++) {
+                if (k == 0 || comparePoints(order[k - 1], order[k]) != 0) {
+                    count++;
+                }
+            }
+            float[] rvXs = new float[count], rvYs = new float[count];
+            int[] rvHorizontals = new int[count], rvVerticals = new int[count];
+            int j = -1;
+            for (int k = 0; k < size; k++) {
+                int i = order[k];
+                if (k == 0 || comparePoints(order[k - 1], i) != 0) {
+                    j++;
+                    rvXs[j] = xs[i];
+                    rvYs[j] = ys[i];
+                }
+                rvHorizontals[j] = horizontals[i];
+                rvVerticals[j] = verticals[i];
+            }
+            return new RulingIntersections(rvXs, rvYs, rvHorizontals, rvVerticals, expandedHorizontals, expandedVerticals);
+        }
+
+        // the order of RulingIntersections.POINT_ORDER
+        private int comparePoints(int a, int b) {
+            if (ys[a] > ys[b]) return  1;
+            if (ys[a] < ys[b]) return -1;
+            if (xs[a] > xs[b]) return  1;
+            if (xs[a] < xs[b]) return -1;
+            return 0;
+        }
+    }
+
+    // the order collapseOrientedRulings leaves rulings of one orientation in
+    static final Comparator<Ruling> POSITION_THEN_START = new Comparator<Ruling>() {
+        @Override
+        public int compare(Ruling a, Ruling b) {
+            final float diff = a.getPosition() - b.getPosition();
+            return java.lang.Float.compare(diff == 0 ? a.getStart() - b.getStart() : diff, 0f);
+        }
+    };
+
     public static List<Ruling> collapseOrientedRulings(List<Ruling> lines) {
         return collapseOrientedRulings(lines, COLINEAR_OR_PARALLEL_PIXEL_EXPAND_AMOUNT);
     }
     
     public static List<Ruling> collapseOrientedRulings(List<Ruling> lines, int expandAmount) {
         ArrayList<Ruling> rv = new ArrayList<>();
-        Collections.sort(lines, new Comparator<Ruling>() {
-            @Override
-            public int compare(Ruling a, Ruling b) {
-                final float diff = a.getPosition() - b.getPosition();
-                return java.lang.Float.compare(diff == 0 ? a.getStart() - b.getStart() : diff, 0f);
-            }
-        });
+        Collections.sort(lines, POSITION_THEN_START);
 
         for (Ruling next_line : lines) {
             Ruling last = rv.isEmpty() ? null : rv.get(rv.size() - 1);
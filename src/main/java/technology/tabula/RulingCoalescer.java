@@ -0,0 +1,66 @@
+package technology.tabula;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Adds the rulings of a page to a list as they are painted, merging a horizontal or vertical ruling into the last one
+ * painted along the same line when the two overlap or nearly touch, as {@link Ruling#collapseOrientedRulings} would
+ * later on. A border drawn a dash at a time comes out as one ruling instead of hundreds.
+ */
+final class RulingCoalescer {
+
+    // two rulings closer than this are merged; the same gap collapseOrientedRulings closes, each of them being
+    // expanded by COLINEAR_OR_PARALLEL_PIXEL_EXPAND_AMOUNT there
+    private static final float MERGE_GAP = 2f;
+
+    private final List<Ruling> rulings;
+    private final Map<Long, Ruling> lastHorizontalAt = new HashMap<>();
+    private final Map<Long, Ruling> lastVerticalAt = new HashMap<>();
+
+    RulingCoalescer(List<Ruling> rulings) {
+        this.rulings = rulings;
+    }
+
+    void add(Ruling ruling) {
+        boolean horizontal = ruling.horizontal();
+        // oblique, or so short as to be both horizontal and vertical
+        if (horizontal == ruling.vertical()) {
+            rulings.add(ruling);
+            return;
+        }
+
+        Map<Long, Ruling> lastAt = horizontal ? lastHorizontalAt : lastVerticalAt;
+        Long position = Utils.quantize(ruling.getPosition(), 2);
+        Ruling last = lastAt.get(position);
+        float start = Math.min(ruling.getStart(), ruling.getEnd());
+        float end = Math.max(ruling.getStart(), ruling.getEnd());
+        if (last != null) {
+            float lastStart = Math.min(last.getStart(), last.getEnd());
+            float lastEnd = Math.max(last.getStart(), last.getEnd());
+            if (start <= lastEnd + MERGE_GAP && end >= lastStart - MERGE_GAP) {
+                // both ends at once, last possibly running backwards
+                if (horizontal) {
+                    last.setLine(Math.min(start, lastStart), last.y1, Math.max(end, lastEnd), last.y2);
+                } else {
+                    last.setLine(last.x1, Math.min(start, lastStart), last.x2, Math.max(end, lastEnd));
+                }
+                return;
+            }
+        }
+        rulings.add(ruling);
+        lastAt.put(position, ruling);
+    }
+
+    /**
+     * Drops the rulings that are still shorter than {@code minimumLength}, once nothing more is going to be merged
+     * into them.
+     */
+    void dropShorterThan(float minimumLength) {
+        rulings.removeIf(r -> r.length() < minimumLength);
+        lastHorizontalAt.clear();
+        lastVerticalAt.clear();
+    }
+
+}
@@ -0,0 +1,352 @@
+package technology.tabula;
+
+import java.awt.Shape;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.GeneralPath;
+import java.awt.geom.Line2D;
+import java.awt.geom.Path2D;
+import java.awt.geom.PathIterator;
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.graphics.state.PDGraphicsState;
+
+import static java.awt.geom.PathIterator.*;
+
+/**
+ * Builds {@link Ruling}s out of the paths painted on a page.
+ * <p>
+ * Path construction calls receive device coordinates (i.e. already transformed by the CTM), the same
+ * contract as {@link org.apache.pdfbox.contentstream.PDFGraphicsStreamEngine}. Used by
+ * {@link ObjectExtractorStreamEngine} and by {@link TextStripper}, which collects rulings while it
+ * extracts the text so that the content stream is only parsed once.
+ */
+class RulingCollector {
+
+    private final List<Ruling> rulings = new ArrayList<>();
+    // null unless the rulings are to be coalesced as they are painted
+    private final RulingCoalescer coalescer;
+    // the rulings of the path being painted, handed over once the whole path turns out to make rulings
+    private final List<Ruling> pathRulings = new ArrayList<>();
+    private final AffineTransform pageTransform;
+    private int clipWindingRule = -1;
+    private GeneralPath currentPath = new GeneralPath();
+
+    // A graphics state copies its list of clipping paths before its clip first changes, and only appends to
+    // it afterwards, so the list and its size tell whether the clip bounds have to be worked out again.
+    private Rectangle2D clipBounds;
+    private List<Path2D> clipBoundsPaths;
+    private int clipBoundsPathCount;
+
+    private static final float RULING_MINIMUM_LENGTH = 0.01f;
+    private static final float THIN_RECTANGLE_MAXIMUM_THICKNESS = 2f;
+
+    RulingCollector(PDPage page) {
+        this(page, false);
+    }
+
+    /**
+     * @param coalesce make a single ruling out of each filled rectangle no thicker than a hairline, and merge
+     *                 each ruling into the last one painted along the same line if they overlap or nearly touch
+     */
+    RulingCollector(PDPage page, boolean coalesce) {
+        this.coalescer = coalesce ? new RulingCoalescer(rulings) : null;
+
+        // Calculate page transform:
+        AffineTransform pageTransform = new AffineTransform();
+        PDRectangle pageCropBox = page.getCropBox();
+        int rotationAngleInDegrees = page.getRotation();
+
+        if (Math.abs(rotationAngleInDegrees) == 90 || Math.abs(rotationAngleInDegrees) == 270) {
+            double rotationAngleInRadians = rotationAngleInDegrees * (Math.PI / 180.0);
+            pageTransform = AffineTransform.getRotateInstance(rotationAngleInRadians, 0, 0);
+        } else {
+            double deltaX = 0;
+            double deltaY = pageCropBox.getHeight();
+            pageTransform.concatenate(AffineTransform.getTranslateInstance(deltaX, deltaY));
+        }
+
+        pageTransform.concatenate(AffineTransform.getScaleInstance(1, -1));
+        pageTransform.translate(-pageCropBox.getLowerLeftX(), -pageCropBox.getLowerLeftY());
+        this.pageTransform = pageTransform;
+    }
+
+    List<Ruling> getRulings() {
+        return rulings;
+    }
+
+    /**
+     * Drops the rulings shorter than {@code minimumLength}, such as the dots of a dotted line too far apart to be
+     * merged. Meant to be called once the page has been painted.
+     */
+    void dropRulingsShorterThan(float minimumLength) {
+        if (coalescer != null) {
+            coalescer.dropShorterThan(minimumLength);
+        } else {
+            rulings.removeIf(r -> r.length() < minimumLength);
+        }
+    }
+
+    AffineTransform getPageTransform() {
+        return pageTransform;
+    }
+
+    // - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - //
+    void appendRectangle(Point2D p0, Point2D p1, Point2D p2, Point2D p3) {
+        currentPath.moveTo((float) p0.getX(), (float) p0.getY());
+        currentPath.lineTo((float) p1.getX(), (float) p1.getY());
+        currentPath.lineTo((float) p2.getX(), (float) p2.getY());
+        currentPath.lineTo((float) p3.getX(), (float) p3.getY());
+        currentPath.closePath();
+    }
+
+    void clip(int windingRule) {
+        // The clipping path will not be updated until the succeeding painting
+        // operator is called.
+        clipWindingRule = windingRule;
+    }
+
+    void closePath() {
+        currentPath.closePath();
+    }
+
+    void curveTo(float x1, float y1, float x2, float y2, float x3, float y3) {
+        currentPath.curveTo(x1, y1, x2, y2, x3, y3);
+    }
+
+    void endPath(PDGraphicsState graphicsState) {
+        if (clipWindingRule != -1) {
+            currentPath.setWindingRule(clipWindingRule);
+            graphicsState.intersectClippingPath(currentPath);
+            clipWindingRule = -1;
+        }
+        currentPath.reset();
+    }
+
+    Point2D getCurrentPoint() {
+        return currentPath.getCurrentPoint();
+    }
+
+    void lineTo(float x, float y) {
+        currentPath.lineTo(x, y);
+    }
+
+    void moveTo(float x, float y) {
+        currentPath.moveTo(x, y);
+    }
+
+    // - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - //
+    void strokeOrFillPath(PDGraphicsState graphicsState, boolean isFill) {
+        // TODO: how to implement color filter?
+
+        if (isFill && coalescer != null) {
+            Line2D.Float centreLine = thinRectangleCentreLine();
+            if (centreLine != null) {
+                addRulingWithin(clipBounds(graphicsState), centreLine);
+                addPathRulings();
+                currentPath.reset();
+                return;
+            }
+        }
+
+        PathIterator pathIterator = currentPath.getPathIterator(getPageTransform());
+
+        float[] coordinates = new float[6];
+        int currentSegment;
+
+        // Only paths of straight lines starting with a move make rulings. Skip the first path operation
+        // and save it as the starting point.
+        if (pathIterator.currentSegment(coordinates) != SEG_MOVETO) {
+            currentPath.reset();
+            return;
+        }
+        Point2D.Float startPoint = new Point2D.Float(Utils.round(coordinates[0], 2), Utils.round(coordinates[1], 2));
+        Point2D.Float last_move = startPoint;
+        Point2D.Float endPoint = null;
+        Line2D.Float line;
+        PointComparator pointComparator = new PointComparator();
+        Rectangle2D clip = null;
+
+        while (!pathIterator.isDone()) {
+            pathIterator.next();
+            boolean pastLastSegment = pathIterator.isDone();
+            // This can be the last segment, when pathIterator.isDone, but we need to
+            // process it otherwise us-017.pdf fails the last value.
+            try {
+                currentSegment = pathIterator.currentSegment(coordinates);
+            } catch (IndexOutOfBoundsException ex) {
+                continue;
+            }
+            if (!pastLastSegment && currentSegment != SEG_LINETO && currentSegment != SEG_CLOSE && currentSegment != SEG_MOVETO) {
+                // a curve anywhere in the path, and none of it makes rulings
+                pathRulings.clear();
+                currentPath.reset();
+                return;
+            }
+            switch (currentSegment) {
+                case SEG_LINETO:
+                    endPoint = new Point2D.Float(coordinates[0], coordinates[1]);
+                    if (startPoint == null || endPoint == null) {
+                        break;
+                    }
+                    line = getLineBetween(startPoint, endPoint, pointComparator);
+                    clip = clip != null ? clip : clipBounds(graphicsState);
+                    addRulingWithin(clip, line);
+                    break;
+                case SEG_MOVETO:
+                    last_move = new Point2D.Float(coordinates[0], coordinates[1]);
+                    endPoint = last_move;
+                    break;
+                case SEG_CLOSE:
+                    // According to PathIterator docs:
+                    // "The preceding sub-path should be closed by appending a line
+                    // segment back to the point corresponding to the most recent
+                    // SEG_MOVETO."
+                    if (startPoint == null || endPoint == null) {
+                        break;
+                    }
+                    line = getLineBetween(endPoint, last_move, pointComparator);
+                    clip = clip != null ? clip : clipBounds(graphicsState);
+                    addRulingWithin(clip, line);
+                    break;
+            }
+            startPoint = endPoint;
+        }
+        addPathRulings();
+        currentPath.reset();
+    }
+
+    void discardPath() {
+        currentPath.reset();
+    }
+
+    private Line2D.Float getLineBetween(Point2D.Float pointA, Point2D.Float pointB, PointComparator pointComparator) {
+        if (pointComparator.compare(pointA, pointB) == -1) {
+            return new Line2D.Float(pointA, pointB);
+        }
+        return new Line2D.Float(pointB, pointA);
+    }
+
+    private void addRulingWithin(Rectangle2D clip, Line2D.Float line) {
+        if (line.intersects(clip)) {
+            Ruling ruling = new Ruling(line.getP1(), line.getP2()).intersect(clip);
+            if (ruling.length() > RULING_MINIMUM_LENGTH) {
+                pathRulings.add(ruling);
+            }
+        }
+    }
+
+    private void addPathRulings() {
+        if (coalescer == null) {
+            rulings.addAll(pathRulings);
+        } else {
+            for (Ruling ruling : pathRulings) {
+                coalescer.add(ruling);
+            }
+        }
+        pathRulings.clear();
+    }
+
+    /**
+     * A filled rectangle no thicker than a hairline is how many documents draw a rule, or the dash of a dashed one.
+     * Rather than a ruling for each of its sides, two of them hardly longer than the rectangle is thick, it makes a
+     * single ruling along its middle.
+     *
+     * @return the middle line of the current path if it is such a rectangle, null otherwise
+     */
+    private Line2D.Float thinRectangleCentreLine() {
+        PathIterator pathIterator = currentPath.getPathIterator(getPageTransform());
+        float[] coordinates = new float[6];
+        float[] xs = new float[5], ys = new float[5];
+        int points = 0;
+        for (; !pathIterator.isDone(); pathIterator.next()) {
+            int segment = pathIterator.currentSegment(coordinates);
+            if (segment == SEG_CLOSE && points > 0) {
+                pathIterator.next();
+                break;
+            }
+            if (segment != (points == 0 ? SEG_MOVETO : SEG_LINETO) || points == xs.length) {
+                return null;
+            }
+            xs[points] = coordinates[0];
+            ys[points] = coordinates[1];
+            points++;
+        }
+        if (!pathIterator.isDone() || points < 4) {
+            return null;
+        }
+
+        float minX = Float.MAX_VALUE, maxX = -Float.MAX_VALUE, minY = Float.MAX_VALUE, maxY = -Float.MAX_VALUE;
+        for (int i = 0; i < points; i++) {
+            minX = Math.min(minX, xs[i]);
+            maxX = Math.max(maxX, xs[i]);
+            minY = Math.min(minY, ys[i]);
+            maxY = Math.max(maxY, ys[i]);
+        }
+        if (Math.min(maxX - minX, maxY - minY) > THIN_RECTANGLE_MAXIMUM_THICKNESS) {
+            return null;
+        }
+        // every point a corner, and every side, the closing one included, along an axis
+        for (int i = 0; i < points; i++) {
+            int next = (i + 1) % points;
+            boolean corner = (Utils.feq(xs[i], minX) || Utils.feq(xs[i], maxX))
+                    && (Utils.feq(ys[i], minY) || Utils.feq(ys[i], maxY));
+            if (!corner || !(Utils.feq(xs[i], xs[next]) || Utils.feq(ys[i], ys[next]))) {
+                return null;
+            }
+        }
+
+        if (maxX - minX >= maxY - minY) {
+            float y = (minY + maxY) / 2;
+            return new Line2D.Float(minX, y, maxX, y);
+        }
+        float x = (minX + maxX) / 2;
+        return new Line2D.Float(x, minY, x, maxY);
+    }
+
+    Rectangle2D currentClippingPath(PDGraphicsState graphicsState) {
+        return (Rectangle2D) clipBounds(graphicsState).clone();
+    }
+
+    /**
+     * The bounds of the current clipping path in page coordinates, worked out again only when the clip has changed.
+     */
+    private Rectangle2D clipBounds(PDGraphicsState graphicsState) {
+        List<Path2D> clippingPaths = graphicsState.getCurrentClippingPaths();
+        if (clipBounds == null || clippingPaths != clipBoundsPaths || clippingPaths.size() != clipBoundsPathCount) {
+            Shape currentClippingPath = graphicsState.getCurrentClippingPath();
+            Shape transformedClippingPath = getPageTransform().createTransformedShape(currentClippingPath);
+            clipBounds = transformedClippingPath.getBounds2D();
+            clipBoundsPaths = clippingPaths;
+            clipBoundsPathCount = clippingPaths.size();
+        }
+        return clipBounds;
+    }
+
+    // TODO: repeated in SpreadsheetExtractionAlgorithm.
+    static class PointComparator implements Comparator<Point2D> {
+        @Override
+        public int compare(Point2D p1, Point2D p2) {
+            long p1X = Utils.quantize(p1.getX(), 2);
+            long p1Y = Utils.quantize(p1.getY(), 2);
+            long p2X = Utils.quantize(p2.getX(), 2);
+            long p2Y = Utils.quantize(p2.getY(), 2);
+
+            if (p1Y > p2Y)
+                return 1;
+            if (p1Y < p2Y)
+                return -1;
+            if (p1X > p2X)
+                return 1;
+            if (p1X < p2X)
+                return -1;
+            return 0;
+        }
+    }
+
+}
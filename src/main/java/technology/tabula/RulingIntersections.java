@@ -0,0 +1,85 @@
+package technology.tabula;
+
+import java.awt.geom.Point2D;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The points where horizontal and vertical rulings cross, as found by {@link Ruling#findIntersectionPoints}, sorted
+ * by y then x. Each point keeps the indices of its two rulings in the lists they were found in, and the rulings
+ * themselves expanded the way {@link Ruling#findIntersections} hands them out.
+ */
+public final class RulingIntersections {
+
+    static final Comparator<Point2D> POINT_ORDER = new Comparator<Point2D>() {
+        @Override
+        public int compare(Point2D o1, Point2D o2) {
+            if (o1.getY() > o2.getY()) return  1;
+            if (o1.getY() < o2.getY()) return -1;
+            if (o1.getX() > o2.getX()) return  1;
+            if (o1.getX() < o2.getX()) return -1;
+            return 0;
+        }
+    };
+
+    private final float[] xs, ys;
+    private final int[] horizontalIndices, verticalIndices;
+    private final Ruling[] expandedHorizontals, expandedVerticals;
+
+    RulingIntersections(float[] xs, float[] ys, int[] horizontalIndices, int[] verticalIndices,
+                        Ruling[] expandedHorizontals, Ruling[] expandedVerticals) {
+        this.xs = xs;
+        this.ys = ys;
+        this.horizontalIndices = horizontalIndices;
+        this.verticalIndices = verticalIndices;
+        this.expandedHorizontals = expandedHorizontals;
+        this.expandedVerticals = expandedVerticals;
+    }
+
+    public int size() {
+        return xs.length;
+    }
+
+    public float getX(int i) {
+        return xs[i];
+    }
+
+    public float getY(int i) {
+        return ys[i];
+    }
+
+    public int getHorizontalIndex(int i) {
+        return horizontalIndices[i];
+    }
+
+    public int getVerticalIndex(int i) {
+        return verticalIndices[i];
+    }
+
+    /**
+     * @return the horizontal ruling through the i-th point, expanded; the same instance for every point on it
+     */
+    public Ruling getHorizontal(int i) {
+        return expandedHorizontals[horizontalIndices[i]];
+    }
+
+    /**
+     * @return the vertical ruling through the i-th point, expanded; the same instance for every point on it
+     */
+    public Ruling getVertical(int i) {
+        return expandedVerticals[verticalIndices[i]];
+    }
+
+    /**
+     * @return the intersections as {@link Ruling#findIntersections} returns them
+     */
+    public Map<Point2D, Ruling[]> toMap() {
+        TreeMap<Point2D, Ruling[]> rv = new TreeMap<>(POINT_ORDER);
+        for (int i = 0; i < xs.length; i++) {
+            rv.put(new Point2D.Float(xs[i], ys[i]), new Ruling[] { getHorizontal(i), getVertical(i) });
+        }
+        return rv;
+    }
+
+}
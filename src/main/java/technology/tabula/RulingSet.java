@@ -0,0 +1,396 @@
+package technology.tabula;
+
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The horizontal and vertical rulings of a page, or of an area of it. Besides the rulings of each kind, in the order
+ * they were given, it keeps their positions and extents sorted in arrays, so the rulings between two positions or
+ * crossing an area are found with a binary search rather than by going through all of them. Whatever the query,
+ * they come back in the order of {@link #getHorizontals()} and {@link #getVerticals()}.
+ * <p>
+ * The arrays are filled in when the set is made, from the rulings as they are then: moving the rulings afterwards,
+ * as {@link Utils#snapPoints} does, leaves the set out of date. A ruling given as horizontal that isn't, or the other
+ * way round, has no position; it is only found by the queries on areas.
+ * <p>
+ * The lists handed out are copies of the rulings the set looks up: reordering them leaves the queries as they were.
+ */
+public final class RulingSet {
+
+    // a ruling of either kind may lean by up to Utils.feq's epsilon, and so reach a little beyond its position
+    private static final float POSITION_SLACK = 0.1f;
+
+    private final Sorted horizontals, verticals;
+    // null for a whole set; otherwise the area this set is a view of, its rulings only clipped on first use
+    private final Rectangle2D area;
+    // a view's rulings, once clipped
+    private Ruling[] clippedHorizontals, clippedVerticals;
+    private List<Ruling> horizontalList, verticalList, rulingList;
+
+    private RulingSet(Sorted horizontals, Sorted verticals, Rectangle2D area) {
+        this.horizontals = horizontals;
+        this.verticals = verticals;
+        this.area = area;
+    }
+
+    /**
+     * @param horizontals rulings to be looked up by their top
+     * @param verticals   rulings to be looked up by their left; a ruling may be given as both
+     */
+    public static RulingSet of(Collection<Ruling> horizontals, Collection<Ruling> verticals) {
+        return new RulingSet(new Sorted(horizontals.toArray(new Ruling[0]), true),
+                new Sorted(verticals.toArray(new Ruling[0]), false), null);
+    }
+
+    /**
+     * @return a set of the rulings of this one, followed by {@code horizontals} and {@code verticals}; the arrays of
+     * this set are merged with those of the added rulings rather than sorted all over again
+     */
+    public RulingSet withRulings(Collection<Ruling> horizontals, Collection<Ruling> verticals) {
+        if (area != null) {
+            return of(horizontalsInOrder(), verticalsInOrder()).withRulings(horizontals, verticals);
+        }
+        return new RulingSet(this.horizontals.merge(new Sorted(horizontals.toArray(new Ruling[0]), true)),
+                this.verticals.merge(new Sorted(verticals.toArray(new Ruling[0]), false)), null);
+    }
+
+    /**
+     * @return a view of the rulings of this set crossing {@code area}, clipped to it as by
+     * {@link Ruling#cropRulingsToArea}; nothing is copied or clipped until the rulings of the view are asked for
+     */
+    public RulingSet crop(Rectangle2D area) {
+        if (this.area != null) {
+            return of(horizontalsInOrder(), verticalsInOrder()).crop(area);
+        }
+        return new RulingSet(horizontals, verticals, (Rectangle2D) area.clone());
+    }
+
+    // - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - //
+    /**
+     * @return the horizontal rulings; the same list on every call
+     */
+    public List<Ruling> getHorizontals() {
+        if (horizontalList == null) {
+            horizontalList = new ArrayList<>(horizontalsInOrder());
+        }
+        return horizontalList;
+    }
+
+    /**
+     * @return the vertical rulings; the same list on every call
+     */
+    public List<Ruling> getVerticals() {
+        if (verticalList == null) {
+            verticalList = new ArrayList<>(verticalsInOrder());
+        }
+        return verticalList;
+    }
+
+    /**
+     * @return the vertical rulings followed by the horizontal ones, as {@link Page#getRulings()} lists them; the same
+     * list on every call
+     */
+    public List<Ruling> getRulings() {
+        if (rulingList == null) {
+            rulingList = new ArrayList<>(verticalsInOrder());
+            rulingList.addAll(horizontalsInOrder());
+        }
+        return rulingList;
+    }
+
+    public boolean isEmpty() {
+        return horizontalsInOrder().isEmpty() && verticalsInOrder().isEmpty();
+    }
+
+    /**
+     * @return the horizontal rulings with a top from {@code top} to {@code bottom}
+     */
+    public List<Ruling> getHorizontalsBetween(float top, float bottom) {
+        return area == null ? horizontals.between(top, bottom) : between(horizontalsInOrder(), true, top, bottom);
+    }
+
+    /**
+     * @return the vertical rulings with a left from {@code left} to {@code right}
+     */
+    public List<Ruling> getVerticalsBetween(float left, float right) {
+        return area == null ? verticals.between(left, right) : between(verticalsInOrder(), false, left, right);
+    }
+
+    /**
+     * @return the horizontal rulings crossing or touching {@code area}, as {@link Rectangle2D#intersectsLine} tells
+     */
+    public List<Ruling> getHorizontalsCrossing(Rectangle2D area) {
+        return this.area == null ? horizontals.crossing(area) : crossing(horizontalsInOrder(), area);
+    }
+
+    /**
+     * @return the vertical rulings crossing or touching {@code area}, as {@link Rectangle2D#intersectsLine} tells
+     */
+    public List<Ruling> getVerticalsCrossing(Rectangle2D area) {
+        return this.area == null ? verticals.crossing(area) : crossing(verticalsInOrder(), area);
+    }
+
+    // The rulings in the order they were given, as the set looks them up; read-only.
+    List<Ruling> horizontalsInOrder() {
+        if (area == null) {
+            return Collections.unmodifiableList(Arrays.asList(horizontals.rulings));
+        }
+        if (clippedHorizontals == null) {
+            clippedHorizontals = horizontals.clippedTo(area);
+        }
+        return Collections.unmodifiableList(Arrays.asList(clippedHorizontals));
+    }
+
+    List<Ruling> verticalsInOrder() {
+        if (area == null) {
+            return Collections.unmodifiableList(Arrays.asList(verticals.rulings));
+        }
+        if (clippedVerticals == null) {
+            clippedVerticals = verticals.clippedTo(area);
+        }
+        return Collections.unmodifiableList(Arrays.asList(clippedVerticals));
+    }
+
+    // The vertical rulings of a whole set by position, for TextElement.mergeWords; those without one left out.
+    int verticalCount() {
+        return verticals.positions.length;
+    }
+
+    Ruling getVertical(int i) {
+        return verticals.rulings[verticals.indices[i]];
+    }
+
+    float getVerticalPosition(int i) {
+        return verticals.positions[i];
+    }
+
+    /**
+     * @return the index of the first vertical ruling positioned after {@code x}
+     */
+    int firstVerticalAfter(float x) {
+        return verticals.firstAfter(x);
+    }
+
+    // - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - //
+    private static List<Ruling> between(List<Ruling> rulings, boolean horizontal, float from, float to) {
+        List<Ruling> rv = new ArrayList<>();
+        for (Ruling r : rulings) {
+            float position = Sorted.position(r, horizontal);
+            if (position >= from && position <= to) {
+                rv.add(r);
+            }
+        }
+        return rv;
+    }
+
+    private static List<Ruling> crossing(List<Ruling> rulings, Rectangle2D area) {
+        List<Ruling> rv = new ArrayList<>();
+        for (Ruling r : rulings) {
+            if (area.intersectsLine(r)) {
+                rv.add(r);
+            }
+        }
+        return rv;
+    }
+
+    /**
+     * The rulings of one kind, and the positions and extents of those that have one, sorted by position along with
+     * the indices of their rulings; then the indices of the rulings without a position.
+     */
+    private static final class Sorted {
+
+        final Ruling[] rulings;
+        final boolean horizontal;
+        final float[] positions, starts, ends;
+        final int[] indices;
+        final int[] unpositioned;
+
+        Sorted(Ruling[] rulings, boolean horizontal) {
+            this.rulings = rulings;
+            this.horizontal = horizontal;
+
+            int n = rulings.length, positioned = 0;
+            float[] keys = new float[n];
+            for (int i = 0; i < n; i++) {
+                keys[i] = position(rulings[i], horizontal);
+                if (!java.lang.Float.isNaN(keys[i])) {
+                    positioned++;
+                }
+            }
+            // sorted as longs, position above index, so equal positions keep the order of the list
+            long[] order = new long[positioned];
+            unpositioned = new int[n - positioned];
+            for (int i = 0, p = 0, u = 0; i < n; i++) {
+                if (java.lang.Float.isNaN(keys[i])) {
+                    unpositioned[u++] = i;
+                } else {
+                    order[p++] = ((long) sortableBits(keys[i]) << 32) | i;
+                }
+            }
+            Arrays.sort(order);
+
+            positions = new float[positioned];
+            starts = new float[positioned];
+            ends = new float[positioned];
+            indices = new int[positioned];
+            for (int p = 0; p < positioned; p++) {
+                int i = (int) order[p];
+                Ruling r = rulings[i];
+                positions[p] = keys[i];
+                starts[p] = horizontal ? Math.min(r.x1, r.x2) : Math.min(r.y1, r.y2);
+                ends[p] = horizontal ? Math.max(r.x1, r.x2) : Math.max(r.y1, r.y2);
+                indices[p] = i;
+            }
+        }
+
+        private Sorted(Ruling[] rulings, boolean horizontal, int positioned, int[] unpositioned) {
+            this.rulings = rulings;
+            this.horizontal = horizontal;
+            this.positions = new float[positioned];
+            this.starts = new float[positioned];
+            this.ends = new float[positioned];
+            this.indices = new int[positioned];
+            this.unpositioned = unpositioned;
+        }
+
+        /**
+         * @return the top of a horizontal ruling or the left of a vertical one, NaN for a ruling not of the kind
+         */
+        static float position(Ruling r, boolean horizontal) {
+            if (horizontal) {
+                return r.horizontal() ? r.getTop() : java.lang.Float.NaN;
+            }
+            return r.vertical() ? r.getLeft() : java.lang.Float.NaN;
+        }
+
+        // float bits that sort as ints the way the floats do, -0 and 0 alike
+        private static int sortableBits(float f) {
+            int bits = java.lang.Float.floatToIntBits(f + 0.0f);
+            return bits < 0 ? bits ^ 0x7fffffff : bits;
+        }
+
+        // the rulings of this, then the added ones, the arrays merged in order
+        Sorted merge(Sorted added) {
+            int offset = rulings.length;
+            Ruling[] merged = Arrays.copyOf(rulings, offset + added.rulings.length);
+            System.arraycopy(added.rulings, 0, merged, offset, added.rulings.length);
+            int[] mergedUnpositioned = Arrays.copyOf(unpositioned, unpositioned.length + added.unpositioned.length);
+            for (int u = 0; u < added.unpositioned.length; u++) {
+                mergedUnpositioned[unpositioned.length + u] = offset + added.unpositioned[u];
+            }
+
+            Sorted rv = new Sorted(merged, horizontal, positions.length + added.positions.length, mergedUnpositioned);
+            int i = 0, j = 0;
+            for (int k = 0; k < rv.positions.length; k++) {
+                boolean fromThis = j == added.positions.length
+                        || (i < positions.length && positions[i] <= added.positions[j]);
+                Sorted from = fromThis ? this : added;
+                int p = fromThis ? i++ : j++;
+                rv.positions[k] = from.positions[p];
+                rv.starts[k] = from.starts[p];
+                rv.ends[k] = from.ends[p];
+                rv.indices[k] = fromThis ? indices[p] : offset + added.indices[p];
+            }
+            return rv;
+        }
+
+        List<Ruling> between(float from, float to) {
+            int first = firstAtOrAfter(from), last = first;
+            while (last < positions.length && positions[last] <= to) {
+                last++;
+            }
+            int[] found = Arrays.copyOfRange(indices, first, last);
+            return inListOrder(found, found.length);
+        }
+
+        List<Ruling> crossing(Rectangle2D area) {
+            int[] found = new int[16];
+            int count = 0;
+            for (int i : candidates(area)) {
+                if (area.intersectsLine(rulings[i])) {
+                    if (count == found.length) {
+                        found = Arrays.copyOf(found, count * 2);
+                    }
+                    found[count++] = i;
+                }
+            }
+            return inListOrder(found, count);
+        }
+
+        // as Ruling.cropRulingsToArea
+        Ruling[] clippedTo(Rectangle2D area) {
+            int[] candidates = candidates(area);
+            Arrays.sort(candidates);
+            List<Ruling> rv = new ArrayList<>();
+            for (int i : candidates) {
+                Ruling r = rulings[i];
+                if (r.intersects(area)) {
+                    rv.add(r.intersect(area));
+                }
+            }
+            return rv.toArray(new Ruling[0]);
+        }
+
+        // the indices of the rulings that may cross the area: those positioned across it, reaching into it,
+        // and those without a position
+        private int[] candidates(Rectangle2D area) {
+            float positionFrom = (float) (horizontal ? area.getMinY() : area.getMinX()) - POSITION_SLACK;
+            float positionTo = (float) (horizontal ? area.getMaxY() : area.getMaxX()) + POSITION_SLACK;
+            float extentFrom = (float) (horizontal ? area.getMinX() : area.getMinY()) - POSITION_SLACK;
+            float extentTo = (float) (horizontal ? area.getMaxX() : area.getMaxY()) + POSITION_SLACK;
+
+            int[] rv = Arrays.copyOf(unpositioned, unpositioned.length + 16);
+            int count = unpositioned.length;
+            for (int p = firstAtOrAfter(positionFrom); p < positions.length && positions[p] <= positionTo; p++) {
+                if (ends[p] >= extentFrom && starts[p] <= extentTo) {
+                    if (count == rv.length) {
+                        rv = Arrays.copyOf(rv, count * 2);
+                    }
+                    rv[count++] = indices[p];
+                }
+            }
+            return Arrays.copyOf(rv, count);
+        }
+
+        private List<Ruling> inListOrder(int[] found, int count) {
+            Arrays.sort(found, 0, count);
+            List<Ruling> rv = new ArrayList<>(count);
+            for (int k = 0; k < count; k++) {
+                rv.add(rulings[found[k]]);
+            }
+            return rv;
+        }
+
+        int firstAtOrAfter(float position) {
+            int low = 0, high = positions.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (positions[mid] >= position) {
+                    high = mid;
+                } else {
+                    low = mid + 1;
+                }
+            }
+            return low;
+        }
+
+        int firstAfter(float position) {
+            int low = 0, high = positions.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (positions[mid] > position) {
+                    high = mid;
+                } else {
+                    low = mid + 1;
+                }
+            }
+            return low;
+        }
+
+    }
+
+}
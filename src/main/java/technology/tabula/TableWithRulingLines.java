@@ -14,6 +14,13 @@ public class TableWithRulingLines extends Table {
     List<Ruling> verticalRulings, horizontalRulings;
     RectangleSpatialIndex<Cell> si = new RectangleSpatialIndex<>();
     
+    private static final Comparator<Cell> BY_TOP = new Comparator<Cell>() {
+        @Override
+        public int compare(Cell arg0, Cell arg1) {
+            return java.lang.Double.compare(arg0.getTop(), arg1.getTop());
+        }
+    };
+    
     public TableWithRulingLines(Rectangle area, List<Cell> cells, List<Ruling> horizontalRulings, List<Ruling> verticalRulings, ExtractionAlgorithm extractionAlgorithm, int pageNumber) {
         super(extractionAlgorithm);
         this.setRect(area);
@@ -29,24 +36,20 @@ public class TableWithRulingLines extends Table {
             return;
         } 
         
-        for (Cell ce: cells) {
-            si.add(ce);
-        }
+        // only counted below, so the cells can stay in the order they came in
+        si = RectangleSpatialIndex.of(cells);
+        Rectangle bounds = si.getBounds();
         
         List<List<Cell>> rowsOfCells = rowsOfCells(cells);
         for (int i = 0; i < rowsOfCells.size(); i++) {
             List<Cell> row = rowsOfCells.get(i);
             Iterator<Cell> rowCells = row.iterator();
             Cell cell = rowCells.next();
-            List<List<Cell>> others = rowsOfCells(
-                    si.contains(
-                            new Rectangle(cell.getBottom(), si.getBounds().getLeft(), cell.getLeft() - si.getBounds().getLeft(), 
-                                    si.getBounds().getBottom() - cell.getBottom())
-                            ));
-            int startColumn = 0;
-            for (List<Cell> r: others) {
-                startColumn = Math.max(startColumn, r.size());
-            }
+            // a row starts as many columns to the right as the widest row of the cells below it and left of its
+            // first cell; there are none when that first cell is on the left edge, as in every row of a plain grid
+            Rectangle belowLeft = new Rectangle(cell.getBottom(), bounds.getLeft(), cell.getLeft() - bounds.getLeft(),
+                    bounds.getBottom() - cell.getBottom());
+            int startColumn = belowLeft.isEmpty() ? 0 : widestRow(si.contains(belowLeft));
             this.add(cell, i, startColumn++);
             while (rowCells.hasNext()) {
                 this.add(rowCells.next(), i, startColumn++);
@@ -54,6 +57,27 @@ public class TableWithRulingLines extends Table {
         }
     }
     
+    /**
+     * The number of cells in the longest row of {@link #rowsOfCells}, without making the rows.
+     */
+    private static int widestRow(List<Cell> cells) {
+        if (cells.isEmpty()) {
+            return 0;
+        }
+        Collections.sort(cells, BY_TOP);
+        
+        int widest = 0, width = 0;
+        float lastTop = cells.get(0).getTop();
+        for (Cell c: cells) {
+            if (!Utils.feq(c.getTop(), lastTop)) {
+                width = 0;
+            }
+            widest = Math.max(widest, ++width);
+            lastTop = c.getTop();
+        }
+        return widest;
+    }
+    
     private static List<List<Cell>> rowsOfCells(List<Cell> cells) {
         Cell c;
         float lastTop;
@@ -64,12 +88,7 @@ public class TableWithRulingLines extends Table {
             return rv;
         }
         
-        Collections.sort(cells, new Comparator<Cell>() {
-            @Override
-            public int compare(Cell arg0, Cell arg1) {
-                return java.lang.Double.compare(arg0.getTop(), arg1.getTop());
-            }
-        });
+        Collections.sort(cells, BY_TOP);
         
         
         Iterator<Cell> iter = cells.iterator();
@@ -12,6 +12,12 @@ public class TextChunk extends RectangularTextContainer<TextElement> {
     public static final TextChunk EMPTY = new TextChunk(0, 0, 0, 0);
 //    List<TextElement> textElements = new ArrayList<>();
 
+    private static final int UNKNOWN_DIRECTIONALITY = Integer.MIN_VALUE;
+
+    // computed on first use, as chunks get compared and read over and over; see textElementsChanged()
+    private transient String text;
+    private transient int ltrDominance = UNKNOWN_DIRECTIONALITY;
+
     public TextChunk(float top, float left, float width, float height) {
         super(top, left, width, height);
     }
@@ -127,6 +133,13 @@ public class TextChunk extends RectangularTextContainer<TextElement> {
     }
 
     @Override public int isLtrDominant() {
+        if (ltrDominance == UNKNOWN_DIRECTIONALITY) {
+            ltrDominance = computeLtrDominance();
+        }
+        return ltrDominance;
+    }
+
+    private int computeLtrDominance() {
         int ltrCnt = 0;
         int rtlCnt = 0;
         for (int i = 0; i < this.getTextElements().size(); i++) {
@@ -157,6 +170,7 @@ public class TextChunk extends RectangularTextContainer<TextElement> {
     public void add(TextElement textElement) {
         this.textElements.add(textElement);
         this.merge(textElement);
+        textElementsChanged();
     }
 
     public void add(List<TextElement> elements) {
@@ -165,8 +179,21 @@ public class TextChunk extends RectangularTextContainer<TextElement> {
         }
     }
 
+    @Override
+    protected void textElementsChanged() {
+        text = null;
+        ltrDominance = UNKNOWN_DIRECTIONALITY;
+    }
+
     @Override
     public String getText() {
+        if (text == null) {
+            text = computeText();
+        }
+        return text;
+    }
+
+    private String computeText() {
         if (this.textElements.size() == 0) {
             return "";
         }
@@ -1,6 +1,7 @@
 package technology.tabula;
 
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 
 import org.apache.pdfbox.pdmodel.font.PDFont;
@@ -109,12 +110,26 @@ public class TextElement extends Rectangle implements HasText {
         return mergeWords(textElements, new ArrayList<Ruling>());
     }
 
+    /**
+     * Same as {@link #mergeWords(List, List)}, creating the TextElements of the glyphs as they're merged.
+     */
+    public static List<TextChunk> mergeWords(GlyphStore glyphs, List<Ruling> verticalRulings) {
+        return mergeWords(glyphs.asTextElements(), verticalRulings);
+    }
+
     /**
      * heuristically merge a list of TextElement into a list of TextChunk
      * ported from from PDFBox's PDFTextStripper.writePage, with modifications.
      * Here be dragons
      */
     public static List<TextChunk> mergeWords(List<TextElement> textElements, List<Ruling> verticalRulings) {
+        return mergeWords(textElements, RulingSet.of(new ArrayList<Ruling>(), verticalRulings));
+    }
+
+    /**
+     * Same as {@link #mergeWords(List, List)}, with the vertical rulings of a set, such as {@link Page#getRulingSet()}.
+     */
+    public static List<TextChunk> mergeWords(List<TextElement> textElements, RulingSet rulings) {
 
         List<TextChunk> textChunks = new ArrayList<>();
 
@@ -122,12 +137,11 @@ public class TextElement extends Rectangle implements HasText {
             return textChunks;
         }
 
-        // it's a problem that this `remove` is side-effecty
-        // other things depend on `textElements` and it can sometimes lead to the first textElement in textElement
-        // not appearing in the final output because it's been removed here.
+        // `textElements` must be left alone: other things depend on it, and removing its first element here
+        // used to drop it from the final output.
         // https://github.com/tabulapdf/tabula-java/issues/78
-        List<TextElement> copyOfTextElements = new ArrayList<>(textElements);
-        textChunks.add(new TextChunk(copyOfTextElements.remove(0)));
+        Iterator<TextElement> remainingTextElements = textElements.iterator();
+        textChunks.add(new TextChunk(remainingTextElements.next()));
         TextChunk firstTC = textChunks.get(0);
 
         float previousAveCharWidth = (float) firstTC.getWidth();
@@ -142,7 +156,8 @@ public class TextElement extends Rectangle implements HasText {
         TextChunk currentChunk;
         boolean sameLine, acrossVerticalRuling;
 
-        for (TextElement chr : copyOfTextElements) {
+        while (remainingTextElements.hasNext()) {
+            TextElement chr = remainingTextElements.next();
             currentChunk = textChunks.get(textChunks.size() - 1);
             prevChar = currentChunk.textElements.get(currentChunk.textElements.size() - 1);
 
@@ -163,16 +178,7 @@ public class TextElement extends Rectangle implements HasText {
             }
 
             // is there any vertical ruling that goes across chr and prevChar?
-            acrossVerticalRuling = false;
-            for (Ruling r : verticalRulings) {
-                if (
-                        (verticallyOverlapsRuling(prevChar, r) && verticallyOverlapsRuling(chr, r)) &&
-                                (prevChar.x < r.getPosition() && chr.x > r.getPosition()) || (prevChar.x > r.getPosition() && chr.x < r.getPosition())
-                        ) {
-                    acrossVerticalRuling = true;
-                    break;
-                }
-            }
+            acrossVerticalRuling = anyVerticalRulingAcross(rulings, prevChar, chr);
 
             // Estimate the expected width of the space based on the
             // space character with some margin.
@@ -274,4 +280,29 @@ public class TextElement extends Rectangle implements HasText {
         return Math.max(0, Math.min(te.getBottom(), r.getY2()) - Math.max(te.getTop(), r.getY1())) > 0;
     }
 
+    /**
+     * Same as checking, for every vertical ruling r, whether
+     * <pre>
+     * (verticallyOverlapsRuling(prevChar, r) &amp;&amp; verticallyOverlapsRuling(chr, r)) &amp;&amp;
+     *         (prevChar.x &lt; r.getPosition() &amp;&amp; chr.x &gt; r.getPosition()) ||
+     *         (prevChar.x &gt; r.getPosition() &amp;&amp; chr.x &lt; r.getPosition())
+     * </pre>
+     * with the rulings by position, so that only the ones between the two characters are looked at.
+     * Going right to left, any ruling in between counts, whatever its vertical extent.
+     */
+    private static boolean anyVerticalRulingAcross(RulingSet rulings, TextElement prevChar, TextElement chr) {
+        if (chr.x < prevChar.x) {
+            int i = rulings.firstVerticalAfter(chr.x);
+            return i < rulings.verticalCount() && rulings.getVerticalPosition(i) < prevChar.x;
+        }
+        for (int i = rulings.firstVerticalAfter(prevChar.x);
+             i < rulings.verticalCount() && rulings.getVerticalPosition(i) < chr.x; i++) {
+            Ruling r = rulings.getVertical(i);
+            if (verticallyOverlapsRuling(prevChar, r) && verticallyOverlapsRuling(chr, r)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
 }
@@ -1,17 +1,30 @@
 package technology.tabula;
 
 import org.apache.fontbox.util.BoundingBox;
+import org.apache.pdfbox.contentstream.operator.MissingOperandException;
+import org.apache.pdfbox.contentstream.operator.Operator;
+import org.apache.pdfbox.contentstream.operator.OperatorName;
+import org.apache.pdfbox.contentstream.operator.OperatorProcessor;
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.cos.COSNumber;
 import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.font.PDFont;
 import org.apache.pdfbox.pdmodel.font.PDFontDescriptor;
 import org.apache.pdfbox.pdmodel.font.PDType3Font;
 import org.apache.pdfbox.text.PDFTextStripper;
 import org.apache.pdfbox.text.TextPosition;
+import org.apache.pdfbox.util.Matrix;
+import org.apache.pdfbox.util.Vector;
 
+import java.awt.geom.Point2D;
 import java.io.IOException;
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
+import static java.awt.geom.PathIterator.WIND_EVEN_ODD;
+import static java.awt.geom.PathIterator.WIND_NON_ZERO;
+
 public class TextStripper extends PDFTextStripper {
 
     private static final String NBSP = "\u00A0";
@@ -19,26 +32,86 @@ public class TextStripper extends PDFTextStripper {
     private static final float MAX_BLANK_FONT_SIZE = 40.0f;
     private static final float MIN_BLANK_FONT_SIZE = 2.0f;
     private final PDDocument document;
-    private final ArrayList<TextElement> textElements;
-    private final RectangleSpatialIndex<TextElement> spatialIndex;
+    private final GlyphStore glyphs;
+    // only created if asked for, see getTextElements() and getSpatialIndex()
+    private List<TextElement> textElements;
+    private RectangleSpatialIndex<TextElement> spatialIndex;
     private float minCharWidth = Float.MAX_VALUE;
     private float minCharHeight = Float.MAX_VALUE;
     private float totalHeight = 0.0f;
     private int countHeight = 0;
+    private final boolean extractRulings;
+    private boolean coalesceRulings;
+    private float minimumRulingLength;
+    private RulingCollector rulingCollector;
 
     public TextStripper(PDDocument document, int pageNumber) throws IOException {
+        this(document, pageNumber, false);
+    }
+
+    /**
+     * @param extractRulings also collect the page's rulings while the text is extracted, so that the
+     *                       content stream doesn't have to be processed again by {@link ObjectExtractorStreamEngine}
+     */
+    public TextStripper(PDDocument document, int pageNumber, boolean extractRulings) throws IOException {
         super();
         this.document = document;
         this.setStartPage(pageNumber);
         this.setEndPage(pageNumber);
-        this.textElements = new ArrayList<>();
-        this.spatialIndex = new RectangleSpatialIndex<>();
+        this.glyphs = new GlyphStore();
+        this.extractRulings = extractRulings;
+
+        if (extractRulings) {
+            for (String operator : PATH_OPERATORS) {
+                addOperator(new PathOperator(operator));
+            }
+        }
     }
 
     public void process() throws IOException {
         this.getText(this.document);
     }
 
+    /**
+     * @see ObjectExtractor#setCoalesceRulings(boolean)
+     */
+    void setCoalesceRulings(boolean coalesceRulings) {
+        this.coalesceRulings = coalesceRulings;
+    }
+
+    /**
+     * @see ObjectExtractor#setMinimumRulingLength(float)
+     */
+    void setMinimumRulingLength(float minimumRulingLength) {
+        this.minimumRulingLength = minimumRulingLength;
+    }
+
+    // only called for the pages within the start/end range, right before their content stream is processed
+    @Override
+    protected void startPage(PDPage page) throws IOException {
+        if (extractRulings) {
+            rulingCollector = new RulingCollector(page, coalesceRulings);
+        }
+        super.startPage(page);
+    }
+
+    @Override
+    protected void endPage(PDPage page) throws IOException {
+        if (rulingCollector != null && minimumRulingLength > 0) {
+            rulingCollector.dropRulingsShorterThan(minimumRulingLength);
+        }
+        super.endPage(page);
+    }
+
+    @Override
+    protected void showGlyph(Matrix textRenderingMatrix, PDFont font, int code, Vector displacement) throws IOException {
+        super.showGlyph(textRenderingMatrix, font, code, displacement);
+        // Type 3 glyphs are drawn by content streams of their own, which may paint rulings
+        if (rulingCollector != null && font instanceof PDType3Font) {
+            showType3Glyph(textRenderingMatrix, (PDType3Font) font, code, displacement);
+        }
+    }
+
     @Override
     protected void writeString(String string, List<TextPosition> textPositions) throws IOException
     {
@@ -63,26 +136,24 @@ public class TextStripper extends PDFTextStripper {
 
             float wos = textPosition.getWidthOfSpace();
 
-            TextElement te = new TextElement(Utils.round(textPosition.getYDirAdj() - h, 2),
-                    Utils.round(textPosition.getXDirAdj(), 2), Utils.round(textPosition.getWidthDirAdj(), 2),
-                    Utils.round(textPosition.getHeightDir(), 2), textPosition.getFont(), textPosition.getFontSizeInPt(), c,
-                    // workaround a possible bug in PDFBox:
-                    // https://issues.apache.org/jira/browse/PDFBOX-1755
-                    wos, textPosition.getDir());
+            float top = Utils.round(textPosition.getYDirAdj() - h, 2);
+            float left = Utils.round(textPosition.getXDirAdj(), 2);
+            float width = Utils.round(textPosition.getWidthDirAdj(), 2);
+            float height = Utils.round(textPosition.getHeightDir(), 2);
 
-            this.minCharWidth = (float) Math.min(this.minCharWidth, te.getWidth());
-            this.minCharHeight = (float) Math.min(this.minCharHeight, te.getHeight());
+            this.minCharWidth = Math.min(this.minCharWidth, width);
+            this.minCharHeight = Math.min(this.minCharHeight, height);
 
             countHeight++;
-            totalHeight += te.getHeight();
+            totalHeight += height;
             float avgHeight = totalHeight / countHeight;
             
             //We have an issue where tall blank cells throw off the row height calculation
             //Introspect a blank cell a bit here to see if it should be thrown away
-            if ((te.getText() == null || te.getText().trim().equals(""))) {
+            if (c.trim().equals("")) {
                 //if the cell height is more than AVG_HEIGHT_MULT_THRESHOLDxaverage, throw it away
                 if (avgHeight > 0
-                        && te.getHeight() >= (avgHeight * AVG_HEIGHT_MULT_THRESHOLD)) {
+                        && height >= (avgHeight * AVG_HEIGHT_MULT_THRESHOLD)) {
                     continue;
                 }
                 
@@ -91,9 +162,11 @@ public class TextStripper extends PDFTextStripper {
                     continue;
                 }
             }
-            
-            this.spatialIndex.add(te);
-            this.textElements.add(te);
+
+            this.glyphs.add(top, left, width, height, textPosition.getFont(), textPosition.getFontSizeInPt(), c,
+                    // workaround a possible bug in PDFBox:
+                    // https://issues.apache.org/jira/browse/PDFBOX-1755
+                    wos, textPosition.getDir());
         }
     }
 
@@ -157,11 +230,37 @@ public class TextStripper extends PDFTextStripper {
         return printable;
     }
 
+    /**
+     * @return the rulings of the processed page, or an empty list if this stripper wasn't asked to extract them
+     */
+    public List<Ruling> getRulings() {
+        return rulingCollector == null ? Collections.<Ruling>emptyList() : rulingCollector.getRulings();
+    }
+
+    /**
+     * @return the glyphs of the processed page, in the order they were shown
+     */
+    public GlyphStore getGlyphs() {
+        return glyphs;
+    }
+
+    /**
+     * @return the glyphs of the processed page as TextElements, created on the first call
+     */
     public List<TextElement> getTextElements() {
-        return this.textElements;
+        if (textElements == null) {
+            textElements = glyphs.toTextElements();
+        }
+        return textElements;
     }
 
     public RectangleSpatialIndex<TextElement> getSpatialIndex() {
+        if (spatialIndex == null) {
+            spatialIndex = new RectangleSpatialIndex<>();
+            for (TextElement te : getTextElements()) {
+                spatialIndex.add(te);
+            }
+        }
         return spatialIndex;
     }
 
@@ -172,4 +271,153 @@ public class TextStripper extends PDFTextStripper {
     public float getMinCharHeight() {
         return minCharHeight;
     }
+
+    // - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - //
+    private static final String[] PATH_OPERATORS = {
+            OperatorName.MOVE_TO, OperatorName.LINE_TO, OperatorName.CURVE_TO,
+            OperatorName.CURVE_TO_REPLICATE_INITIAL_POINT, OperatorName.CURVE_TO_REPLICATE_FINAL_POINT,
+            OperatorName.APPEND_RECT, OperatorName.CLOSE_PATH,
+            OperatorName.STROKE_PATH, OperatorName.CLOSE_AND_STROKE,
+            OperatorName.FILL_NON_ZERO, OperatorName.LEGACY_FILL_NON_ZERO, OperatorName.FILL_EVEN_ODD,
+            OperatorName.FILL_NON_ZERO_AND_STROKE, OperatorName.FILL_EVEN_ODD_AND_STROKE,
+            OperatorName.CLOSE_FILL_NON_ZERO_AND_STROKE, OperatorName.CLOSE_FILL_EVEN_ODD_AND_STROKE,
+            OperatorName.CLIP_NON_ZERO, OperatorName.CLIP_EVEN_ODD, OperatorName.ENDPATH
+    };
+
+    /**
+     * Path construction and painting operators, with the same semantics as the ones registered by
+     * {@link org.apache.pdfbox.contentstream.PDFGraphicsStreamEngine}, feeding the {@link RulingCollector}.
+     */
+    private final class PathOperator extends OperatorProcessor {
+
+        private final String name;
+
+        PathOperator(String name) {
+            super(TextStripper.this);
+            this.name = name;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public void process(Operator operator, List<COSBase> operands) throws IOException {
+            RulingCollector collector = rulingCollector;
+            if (collector == null) {
+                return;
+            }
+            switch (name) {
+                case OperatorName.MOVE_TO: {
+                    float[] xy = numbers(operator, operands, 2);
+                    if (xy == null) return;
+                    Point2D.Float p = transformedPoint(xy[0], xy[1]);
+                    collector.moveTo(p.x, p.y);
+                    break;
+                }
+                case OperatorName.LINE_TO: {
+                    float[] xy = numbers(operator, operands, 2);
+                    if (xy == null) return;
+                    Point2D.Float p = transformedPoint(xy[0], xy[1]);
+                    if (collector.getCurrentPoint() == null) {
+                        collector.moveTo(p.x, p.y);
+                    } else {
+                        collector.lineTo(p.x, p.y);
+                    }
+                    break;
+                }
+                case OperatorName.CURVE_TO: {
+                    float[] c = numbers(operator, operands, 6);
+                    if (c == null) return;
+                    Point2D.Float p1 = transformedPoint(c[0], c[1]);
+                    Point2D.Float p2 = transformedPoint(c[2], c[3]);
+                    Point2D.Float p3 = transformedPoint(c[4], c[5]);
+                    if (collector.getCurrentPoint() == null) {
+                        collector.moveTo(p3.x, p3.y);
+                    } else {
+                        collector.curveTo(p1.x, p1.y, p2.x, p2.y, p3.x, p3.y);
+                    }
+                    break;
+                }
+                case OperatorName.CURVE_TO_REPLICATE_INITIAL_POINT: {
+                    float[] c = numbers(operator, operands, 4);
+                    if (c == null) return;
+                    Point2D current = collector.getCurrentPoint();
+                    Point2D.Float p2 = transformedPoint(c[0], c[1]);
+                    Point2D.Float p3 = transformedPoint(c[2], c[3]);
+                    if (current == null) {
+                        collector.moveTo(p3.x, p3.y);
+                    } else {
+                        collector.curveTo((float) current.getX(), (float) current.getY(), p2.x, p2.y, p3.x, p3.y);
+                    }
+                    break;
+                }
+                case OperatorName.CURVE_TO_REPLICATE_FINAL_POINT: {
+                    float[] c = numbers(operator, operands, 4);
+                    if (c == null) return;
+                    Point2D.Float p1 = transformedPoint(c[0], c[1]);
+                    Point2D.Float p3 = transformedPoint(c[2], c[3]);
+                    collector.curveTo(p1.x, p1.y, p3.x, p3.y, p3.x, p3.y);
+                    break;
+                }
+                case OperatorName.APPEND_RECT: {
+                    float[] r = numbers(operator, operands, 4);
+                    if (r == null) return;
+                    float x2 = r[2] + r[0];
+                    float y2 = r[3] + r[1];
+                    collector.appendRectangle(transformedPoint(r[0], r[1]), transformedPoint(x2, r[1]),
+                            transformedPoint(x2, y2), transformedPoint(r[0], y2));
+                    break;
+                }
+                case OperatorName.CLOSE_PATH:
+                    if (collector.getCurrentPoint() != null) {
+                        collector.closePath();
+                    }
+                    break;
+                case OperatorName.CLOSE_AND_STROKE:
+                case OperatorName.CLOSE_FILL_NON_ZERO_AND_STROKE:
+                case OperatorName.CLOSE_FILL_EVEN_ODD_AND_STROKE:
+                    if (collector.getCurrentPoint() != null) {
+                        collector.closePath();
+                    }
+                    collector.strokeOrFillPath(getGraphicsState(), !OperatorName.CLOSE_AND_STROKE.equals(name));
+                    break;
+                case OperatorName.STROKE_PATH:
+                    collector.strokeOrFillPath(getGraphicsState(), false);
+                    break;
+                case OperatorName.FILL_NON_ZERO:
+                case OperatorName.LEGACY_FILL_NON_ZERO:
+                case OperatorName.FILL_EVEN_ODD:
+                case OperatorName.FILL_NON_ZERO_AND_STROKE:
+                case OperatorName.FILL_EVEN_ODD_AND_STROKE:
+                    collector.strokeOrFillPath(getGraphicsState(), true);
+                    break;
+                case OperatorName.CLIP_NON_ZERO:
+                    collector.clip(WIND_NON_ZERO);
+                    break;
+                case OperatorName.CLIP_EVEN_ODD:
+                    collector.clip(WIND_EVEN_ODD);
+                    break;
+                case OperatorName.ENDPATH:
+                    collector.endPath(getGraphicsState());
+                    break;
+            }
+        }
+
+        private float[] numbers(Operator operator, List<COSBase> operands, int count) throws IOException {
+            if (operands.size() < count) {
+                throw new MissingOperandException(operator, operands);
+            }
+            float[] rv = new float[count];
+            for (int i = 0; i < count; i++) {
+                COSBase operand = operands.get(i);
+                if (!(operand instanceof COSNumber)) {
+                    return null;
+                }
+                rv[i] = ((COSNumber) operand).floatValue();
+            }
+            return rv;
+        }
+    }
 }
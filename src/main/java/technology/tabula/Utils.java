@@ -38,10 +38,61 @@ public class Utils {
         return (Math.abs(f1 - f2) < EPSILON);
     }
 
+    private static final double[] POWERS_OF_TEN = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9 };
+    private static final float[] FLOAT_POWERS_OF_TEN = { 1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f };
+    // below this many units, the rounded value converts to float with a single, exact, float division
+    private static final double QUANTIZE_FAST_PATH_LIMIT = 1 << 22;
+
+    /**
+     * {@code d} rounded half up to {@code decimalPlace} decimals, as if its decimal representation
+     * ({@link Double#toString(double)}) was rounded. Doesn't allocate for the values coordinates take.
+     */
     public static float round(double d, int decimalPlace) {
+        if (isQuantizedExactly(d, decimalPlace)) {
+            long units = quantizeExactly(d, decimalPlace);
+            // what BigDecimal.floatValue() does for small unscaled values
+            return decimalPlace == 0 ? (float) units : (float) units / FLOAT_POWERS_OF_TEN[decimalPlace];
+        }
+        return roundedDecimal(d, decimalPlace).floatValue();
+    }
+
+    /**
+     * Fixed-point version of {@link #round(double, int)}: {@code d} rounded half up to {@code decimalPlace}
+     * decimals, as a number of 10<sup>-decimalPlace</sup> units (1.235 is 124 units of 0.01). Rounded
+     * coordinates can be compared and hashed as longs this way; values that round the same compare the same.
+     */
+    public static long quantize(double d, int decimalPlace) {
+        if (isQuantizedExactly(d, decimalPlace)) {
+            return quantizeExactly(d, decimalPlace);
+        }
+        return roundedDecimal(d, decimalPlace).unscaledValue().longValue();
+    }
+
+    private static boolean isQuantizedExactly(double d, int decimalPlace) {
+        if (decimalPlace < 0 || decimalPlace >= POWERS_OF_TEN.length) {
+            return false;
+        }
+        // false for NaN and infinities too
+        double scaled = Math.abs(d) * POWERS_OF_TEN[decimalPlace];
+        if (!(scaled < QUANTIZE_FAST_PATH_LIMIT)) {
+            return false;
+        }
+        // d's decimal representation and the product are both within a couple of ulps of the scaled
+        // value, so unless it's about halfway between two units they round to the same one
+        double fraction = scaled - Math.floor(scaled);
+        return Math.abs(fraction - 0.5) > 8 * Math.ulp(scaled);
+    }
+
+    private static long quantizeExactly(double d, int decimalPlace) {
+        double scaled = Math.abs(d) * POWERS_OF_TEN[decimalPlace];
+        double floor = Math.floor(scaled);
+        long units = (long) floor + (scaled - floor > 0.5 ? 1 : 0);
+        return d < 0 ? -units : units;
+    }
+
+    private static BigDecimal roundedDecimal(double d, int decimalPlace) {
         BigDecimal bd = new BigDecimal(Double.toString(d));
-        bd = bd.setScale(decimalPlace, BigDecimal.ROUND_HALF_UP);
-        return bd.floatValue();
+        return bd.setScale(decimalPlace, BigDecimal.ROUND_HALF_UP);
     }
 
     public static Rectangle bounds(Collection<? extends Shape> shapes) {
@@ -25,6 +25,7 @@ import technology.tabula.Page;
 import technology.tabula.ProjectionProfile;
 import technology.tabula.Rectangle;
 import technology.tabula.Ruling;
+import technology.tabula.RulingSet;
 import technology.tabula.Table;
 import technology.tabula.TextChunk;
 import technology.tabula.TextElement;
@@ -94,13 +95,8 @@ public class Debug {
     }
 
     private static void debugCells(Graphics2D g, Rectangle area, Page page) {
-        List<Ruling> h = page.getHorizontalRulings();
-        List<Ruling> v = page.getVerticalRulings();
-        if (area != null) {
-            h = Ruling.cropRulingsToArea(h, area);
-            v = Ruling.cropRulingsToArea(v, area);
-        }
-        List<Cell> cells = SpreadsheetExtractionAlgorithm.findCells(h, v);
+        RulingSet rulings = area == null ? page.getRulingSet() : page.getRulingSet().crop(area);
+        List<Cell> cells = SpreadsheetExtractionAlgorithm.findCells(rulings.getHorizontals(), rulings.getVerticals());
         drawShapes(g, cells);
     }
 
@@ -16,6 +16,8 @@ import technology.tabula.extractors.SpreadsheetExtractionAlgorithm;
 import java.awt.geom.Line2D;
 import java.awt.geom.Point2D;
 import java.awt.image.BufferedImage;
+import java.awt.image.ComponentSampleModel;
+import java.awt.image.DataBufferByte;
 import java.awt.image.Raster;
 import java.io.IOException;
 import java.io.OutputStream;
@@ -30,16 +32,23 @@ import java.util.*;
  */
 public class NurminenDetectionAlgorithm implements DetectionAlgorithm {
 
+    public static final int DEFAULT_RENDER_DPI = 144;
+
     private static final int GRAYSCALE_INTENSITY_THRESHOLD = 25;
+    // distances in the rendered image, in pixels at DEFAULT_RENDER_DPI (see #scaledToRenderDpi)
     private static final int HORIZONTAL_EDGE_WIDTH_MINIMUM = 50;
     private static final int VERTICAL_EDGE_HEIGHT_MINIMUM = 10;
     private static final int CELL_CORNER_DISTANCE_MAXIMUM = 10;
     private static final float POINT_SNAP_DISTANCE_THRESHOLD = 8f;
+    private static final int RULING_COLLAPSE_EXPAND_AMOUNT = 5;
     private static final float TABLE_PADDING_AMOUNT = 1.0f;
     private static final int REQUIRED_TEXT_LINES_FOR_EDGE = 4;
     private static final int REQUIRED_CELLS_FOR_TABLE = 4;
     private static final float IDENTICAL_TABLE_OVERLAP_RATIO = 0.9f;
 
+    private boolean singleRenderPass = false;
+    private int renderDpi = DEFAULT_RENDER_DPI;
+
     /**
      * Helper class that encapsulates a text edge
      */
@@ -83,6 +92,36 @@ public class NurminenDetectionAlgorithm implements DetectionAlgorithm {
         }
     }
 
+    /**
+     * When set, the page is rendered only once, without its text (see {@link TextlessPDFRenderer}), and both
+     * horizontal and vertical edges are looked for on that image. By default horizontal edges come from a
+     * regular render and vertical ones from a second render of a copy of the page stripped of its text
+     * operators. This is about twice as fast, but the detected areas may differ slightly.
+     */
+    public void setSingleRenderPass(boolean singleRenderPass) {
+        this.singleRenderPass = singleRenderPass;
+    }
+
+    /**
+     * Resolution the page is rendered at to look for ruling lines, {@link #DEFAULT_RENDER_DPI} by default.
+     * Rendering and scanning costs grow with its square: 72 DPI takes about a quarter of the time of 144 DPI,
+     * at the price of missing the thinnest and faintest lines.
+     */
+    public void setRenderDpi(int renderDpi) {
+        if (renderDpi <= 0) {
+            throw new IllegalArgumentException("renderDpi must be positive");
+        }
+        this.renderDpi = renderDpi;
+    }
+
+    public int getRenderDpi() {
+        return renderDpi;
+    }
+
+    private static Object documentLock(Page page) {
+        return page.getPDDoc() != null ? page.getPDDoc() : page;
+    }
+
     @Override
     public List<Rectangle> detect(Page page) {
 
@@ -92,35 +131,56 @@ public class NurminenDetectionAlgorithm implements DetectionAlgorithm {
         // person sees when they look at the PDF
         BufferedImage image;
         PDPage pdfPage = page.getPDPage();
-        try {
-            image = Utils.pageConvertToImage(page.getPDDoc(), pdfPage, 144, ImageType.GRAY);
-        } catch (IOException e) {
-            return new ArrayList<>();
-        }
-
-        List<Ruling> horizontalRulings = this.getHorizontalRulings(image);
-
-        // now check the page for vertical lines, but remove the text first to make things less confusing
-        PDDocument removeTextDocument = null;
-        try {
-            removeTextDocument = this.removeText(pdfPage);
-            pdfPage = removeTextDocument.getPage(0);
-            image = Utils.pageConvertToImage(removeTextDocument, pdfPage, 144, ImageType.GRAY);
-        } catch (Exception e) {
-            return new ArrayList<>();
-        } finally {
-            if (removeTextDocument != null) {
+        List<Ruling> horizontalRulings;
+        List<Ruling> verticalRulings;
+
+        // the page's document may be read by a prefetching page iterator meanwhile, under the same lock
+        synchronized (documentLock(page)) {
+            if (singleRenderPass) {
+                PDDocument document = page.getPDDoc();
+                int pageIndex = page.getPageNumber() - 1;
+                if (pageIndex < 0 || pageIndex >= document.getNumberOfPages()) {
+                    return new ArrayList<>();
+                }
                 try {
-                    removeTextDocument.close();
+                    image = new TextlessPDFRenderer(document).renderImageWithDPI(pageIndex, renderDpi, ImageType.GRAY);
                 } catch (IOException e) {
-                    // TODO Auto-generated catch block
-                    e.printStackTrace();
+                    return new ArrayList<>();
                 }
+                horizontalRulings = this.getHorizontalRulings(image);
+                verticalRulings = this.getVerticalRulings(image);
+            } else {
+                try {
+                    image = Utils.pageConvertToImage(page.getPDDoc(), pdfPage, renderDpi, ImageType.GRAY);
+                } catch (IOException e) {
+                    return new ArrayList<>();
+                }
+
+                horizontalRulings = this.getHorizontalRulings(image);
+
+                // now check the page for vertical lines, but remove the text first to make things less confusing
+                PDDocument removeTextDocument = null;
+                try {
+                    removeTextDocument = this.removeText(pdfPage);
+                    pdfPage = removeTextDocument.getPage(0);
+                    image = Utils.pageConvertToImage(removeTextDocument, pdfPage, renderDpi, ImageType.GRAY);
+                } catch (Exception e) {
+                    return new ArrayList<>();
+                } finally {
+                    if (removeTextDocument != null) {
+                        try {
+                            removeTextDocument.close();
+                        } catch (IOException e) {
+                            // TODO Auto-generated catch block
+                            e.printStackTrace();
+                        }
+                    }
+                }
+
+                verticalRulings = this.getVerticalRulings(image);
             }
         }
 
-        List<Ruling> verticalRulings = this.getVerticalRulings(image);
-
         List<Ruling> allEdges = new ArrayList<>(horizontalRulings);
         allEdges.addAll(verticalRulings);
 
@@ -129,7 +189,8 @@ public class NurminenDetectionAlgorithm implements DetectionAlgorithm {
         // if we found some edges, try to find some tables based on them
         if (allEdges.size() > 0) {
             // now we need to snap edge endpoints to a grid
-            Utils.snapPoints(allEdges, POINT_SNAP_DISTANCE_THRESHOLD, POINT_SNAP_DISTANCE_THRESHOLD);
+            float snapDistance = scaledToRenderDpi(POINT_SNAP_DISTANCE_THRESHOLD);
+            Utils.snapPoints(allEdges, snapDistance, snapDistance);
 
             // normalize the rulings to make sure snapping didn't create any wacky non-horizontal/vertical rulings
             for (List<Ruling> rulings : Arrays.asList(horizontalRulings, verticalRulings)) {
@@ -146,8 +207,9 @@ public class NurminenDetectionAlgorithm implements DetectionAlgorithm {
             // merge the edge lines into rulings - this makes finding edges between crossing points in the next step easier
             // we use a larger pixel expansion than the normal spreadsheet extraction method to cover gaps in the
             // edge detection/pixel snapping steps
-            horizontalRulings = Ruling.collapseOrientedRulings(horizontalRulings, 5);
-            verticalRulings = Ruling.collapseOrientedRulings(verticalRulings, 5);
+            int expandAmount = Math.round(scaledToRenderDpi(RULING_COLLAPSE_EXPAND_AMOUNT));
+            horizontalRulings = Ruling.collapseOrientedRulings(horizontalRulings, expandAmount);
+            verticalRulings = Ruling.collapseOrientedRulings(verticalRulings, expandAmount);
 
             // use the rulings and points to find cells
             List<? extends Rectangle> cells = SpreadsheetExtractionAlgorithm.findCells(horizontalRulings, verticalRulings);
@@ -171,30 +233,37 @@ public class NurminenDetectionAlgorithm implements DetectionAlgorithm {
             }
         }
 
-        // the tabula Page coordinate space is half the size of the PDFBox image coordinate space
-        // so halve the table area size before proceeding and add a bit of padding to make sure we capture everything
+        // the tabula Page coordinate space is in points, the image one in pixels at renderDpi
+        // so scale the table areas down before proceeding and add a bit of padding to make sure we capture everything
+        float pixelsPerPoint = renderDpi / 72f;
         for (Rectangle area : tableAreas) {
-            area.x = (float) Math.floor(area.x / 2) - TABLE_PADDING_AMOUNT;
-            area.y = (float) Math.floor(area.y / 2) - TABLE_PADDING_AMOUNT;
-            area.width = (float) Math.ceil(area.width / 2) + TABLE_PADDING_AMOUNT;
-            area.height = (float) Math.ceil(area.height / 2) + TABLE_PADDING_AMOUNT;
+            area.x = (float) Math.floor(area.x / pixelsPerPoint) - TABLE_PADDING_AMOUNT;
+            area.y = (float) Math.floor(area.y / pixelsPerPoint) - TABLE_PADDING_AMOUNT;
+            area.width = (float) Math.ceil(area.width / pixelsPerPoint) + TABLE_PADDING_AMOUNT;
+            area.height = (float) Math.ceil(area.height / pixelsPerPoint) + TABLE_PADDING_AMOUNT;
         }
 
-        // we're going to want halved horizontal lines later too
+        // we're going to want the horizontal lines in page space later too
         for (Line2D.Float ruling : horizontalRulings) {
-            ruling.x1 = ruling.x1 / 2;
-            ruling.y1 = ruling.y1 / 2;
-            ruling.x2 = ruling.x2 / 2;
-            ruling.y2 = ruling.y2 / 2;
+            ruling.x1 = ruling.x1 / pixelsPerPoint;
+            ruling.y1 = ruling.y1 / pixelsPerPoint;
+            ruling.x2 = ruling.x2 / pixelsPerPoint;
+            ruling.y2 = ruling.y2 / pixelsPerPoint;
         }
 
         // now look at text rows to help us find more tables and flesh out existing ones
-        List<TextChunk> textChunks = TextElement.mergeWords(page.getText());
+        List<TextChunk> textChunks = TextElement.mergeWords(page.getTextView());
         List<Line> lines = TextChunk.groupByLines(textChunks);
 
+        // lines never move, so one index serves every lookup below, with results in the order of the lines
+        RectangleSpatialIndex<Line> lineIndex = RectangleSpatialIndex.of(lines);
+        Rectangle textBounds = lineIndex.getBounds();
+
         // first look for text rows that intersect an existing table - those lines should probably be part of the table
-        for (Line textRow : lines) {
-            for (Rectangle tableArea : tableAreas) {
+        // tables only grow sideways here, so the rows that can matter are the ones within the table's vertical extent
+        for (Rectangle tableArea : tableAreas) {
+            Rectangle band = new Rectangle(tableArea.getTop(), textBounds.getLeft(), (float) textBounds.getWidth(), (float) tableArea.getHeight());
+            for (Line textRow : lineIndex.intersects(band)) {
                 if (!tableArea.contains(textRow) && textRow.intersects(tableArea)) {
                     tableArea.setLeft((float) Math.floor(Math.min(textRow.getLeft(), tableArea.getLeft())));
                     tableArea.setRight((float) Math.ceil(Math.max(textRow.getRight(), tableArea.getRight())));
@@ -207,7 +276,7 @@ public class NurminenDetectionAlgorithm implements DetectionAlgorithm {
             Rectangle table = iterator.next();
 
             boolean intersectsText = false;
-            for (Line textRow : lines) {
+            for (Line textRow : lineIndex.intersects(table)) {
                 if (table.intersects(textRow)) {
                     intersectsText = true;
                     break;
@@ -228,19 +297,20 @@ public class NurminenDetectionAlgorithm implements DetectionAlgorithm {
         // part of a table.
 
         boolean foundTable;
+        List<Rectangle> newTables = new ArrayList<>(tableAreas);
 
         do {
             foundTable = false;
 
             // get rid of any text lines contained within existing tables, this allows us to find more tables
-            for (Iterator<Line> iterator = lines.iterator(); iterator.hasNext(); ) {
-                Line textRow = iterator.next();
-                for (Rectangle table : tableAreas) {
-                    if (table.contains(textRow)) {
-                        iterator.remove();
-                        break;
-                    }
-                }
+            // (the lines within the older tables are gone already)
+            Set<Line> containedLines = Collections.newSetFromMap(new IdentityHashMap<Line, Boolean>());
+            for (Rectangle table : newTables) {
+                containedLines.addAll(lineIndex.contains(table));
+            }
+            newTables.clear();
+            if (!containedLines.isEmpty()) {
+                lines.removeIf(containedLines::contains);
             }
 
             // get text edges from remaining lines in the document
@@ -272,6 +342,7 @@ public class NurminenDetectionAlgorithm implements DetectionAlgorithm {
                 if (table != null) {
                     foundTable = true;
                     tableAreas.add(table);
+                    newTables.add(table);
                 }
             }
         } while (foundTable);
@@ -509,9 +580,10 @@ public class NurminenDetectionAlgorithm implements DetectionAlgorithm {
         List<TextEdge> midTextEdges = new ArrayList<>();
         List<TextEdge> rightTextEdges = new ArrayList<>();
 
-        Map<Integer, List<TextChunk>> currLeftEdges = new HashMap<>();
-        Map<Integer, List<TextChunk>> currMidEdges = new HashMap<>();
-        Map<Integer, List<TextChunk>> currRightEdges = new HashMap<>();
+        // sorted, so that the edges a chunk crosses can be looked up as a range instead of checking them all
+        NavigableMap<Integer, List<TextChunk>> currLeftEdges = new TreeMap<>();
+        NavigableMap<Integer, List<TextChunk>> currMidEdges = new TreeMap<>();
+        NavigableMap<Integer, List<TextChunk>> currRightEdges = new TreeMap<>();
 
 
         int numOfLines = lines.size();
@@ -585,13 +657,16 @@ public class NurminenDetectionAlgorithm implements DetectionAlgorithm {
     }
 
 
-    private Collection<TextEdge> calculateExtendedEdges(Integer numOfLines, Map<Integer, List<TextChunk>> currDirectedEdges, Integer left, Integer right) {
+    private Collection<TextEdge> calculateExtendedEdges(Integer numOfLines, NavigableMap<Integer, List<TextChunk>> currDirectedEdges, Integer left, Integer right) {
         return calculateExtendedEdges(numOfLines, currDirectedEdges, left, right, null, null);
     }
 
-    private Collection<TextEdge> calculateExtendedEdges(Integer numOfLines, Map<Integer, List<TextChunk>> currDirectedEdges, Integer left, Integer right, Integer mid, Integer minDistToMid) {
-        Set<TextEdge> extendedEdges = new HashSet<>();
-        Iterator<Map.Entry<Integer, List<TextChunk>>> edgeIterator = currDirectedEdges.entrySet().iterator();
+    private Collection<TextEdge> calculateExtendedEdges(Integer numOfLines, NavigableMap<Integer, List<TextChunk>> currDirectedEdges, Integer left, Integer right, Integer mid, Integer minDistToMid) {
+        List<TextEdge> extendedEdges = new ArrayList<>();
+        if (left >= right) {
+            return extendedEdges;
+        }
+        Iterator<Map.Entry<Integer, List<TextChunk>>> edgeIterator = currDirectedEdges.subMap(left, false, right, false).entrySet().iterator();
         while (edgeIterator.hasNext()) {
             Map.Entry<Integer, List<TextChunk>> entry = edgeIterator.next();
             Integer key = entry.getKey();
@@ -600,9 +675,10 @@ public class NurminenDetectionAlgorithm implements DetectionAlgorithm {
             // otherwise we ignore it
             boolean hasMinDistToMid = mid == null || minDistToMid == null || Math.abs(key - mid) > minDistToMid;
 
-            if (key > left && key < right && hasMinDistToMid) {
-                edgeIterator.remove();
+            if (hasMinDistToMid) {
+                // read before removing: a tree map may reuse the removed entry for its successor
                 List<TextChunk> edgeChunks = entry.getValue();
+                edgeIterator.remove();
                 if (edgeChunks.size() >= REQUIRED_TEXT_LINES_FOR_EDGE) {
                     TextEdge edge = getEdgeFromChunks(numOfLines, key, edgeChunks);
                     extendedEdges.add(edge);
@@ -613,6 +689,7 @@ public class NurminenDetectionAlgorithm implements DetectionAlgorithm {
     }
 
     private List<Rectangle> getTableAreasFromCells(List<? extends Rectangle> cells) {
+        float cellCornerDistanceMaximum = scaledToRenderDpi(CELL_CORNER_DISTANCE_MAXIMUM);
         List<List<Rectangle>> cellGroups = new ArrayList<>();
         for (Rectangle cell : cells) {
             boolean addedToGroup = false;
@@ -625,7 +702,7 @@ public class NurminenDetectionAlgorithm implements DetectionAlgorithm {
 
                     for (Point2D candidateCorner : candidateCorners) {
                         for (Point2D groupCellCorner : groupCellCorners) {
-                            if (candidateCorner.distance(groupCellCorner) < CELL_CORNER_DISTANCE_MAXIMUM) {
+                            if (candidateCorner.distance(groupCellCorner) < cellCornerDistanceMaximum) {
                                 cellGroup.add(cell);
                                 addedToGroup = true;
                                 break cellCheck;
@@ -674,31 +751,30 @@ public class NurminenDetectionAlgorithm implements DetectionAlgorithm {
         // along a straight line of a certain length
         ArrayList<Ruling> horizontalRulings = new ArrayList<>();
 
-        Raster r = image.getRaster();
-        int width = r.getWidth();
-        int height = r.getHeight();
+        int width = image.getWidth();
+        int height = image.getHeight();
+        byte[] pixels = grayscalePixels(image);
+        float edgeWidthMinimum = scaledToRenderDpi(HORIZONTAL_EDGE_WIDTH_MINIMUM);
+
+        // rightmost x covered by an edge found on each row so far: columns are scanned left to right,
+        // so a pixel belongs to an edge found before iff it isn't past that point
+        int[] checkedUntil = new int[height];
+        Arrays.fill(checkedUntil, -1);
 
         for (int x = 0; x < width; x++) {
 
-            int[] lastPixel = r.getPixel(x, 0, (int[]) null);
+            int lastPixel = pixels[x] & 0xff;
 
             for (int y = 1; y < height - 1; y++) {
 
-                int[] currPixel = r.getPixel(x, y, (int[]) null);
+                int row = y * width;
+                int currPixel = pixels[row + x] & 0xff;
 
-                int diff = Math.abs(currPixel[0] - lastPixel[0]);
+                int diff = Math.abs(currPixel - lastPixel);
                 if (diff > GRAYSCALE_INTENSITY_THRESHOLD) {
                     // we hit what could be a line
                     // don't bother scanning it if we've hit a pixel in the line before
-                    boolean alreadyChecked = false;
-                    for (Line2D.Float line : horizontalRulings) {
-                        if (y == line.getY1() && x >= line.getX1() && x <= line.getX2()) {
-                            alreadyChecked = true;
-                            break;
-                        }
-                    }
-
-                    if (alreadyChecked) {
+                    if (x <= checkedUntil[y]) {
                         lastPixel = currPixel;
                         continue;
                     }
@@ -706,11 +782,11 @@ public class NurminenDetectionAlgorithm implements DetectionAlgorithm {
                     int lineX = x + 1;
 
                     while (lineX < width) {
-                        int[] linePixel = r.getPixel(lineX, y, (int[]) null);
-                        int[] abovePixel = r.getPixel(lineX, y - 1, (int[]) null);
+                        int linePixel = pixels[row + lineX] & 0xff;
+                        int abovePixel = pixels[row - width + lineX] & 0xff;
 
-                        if (Math.abs(linePixel[0] - abovePixel[0]) <= GRAYSCALE_INTENSITY_THRESHOLD
-                                || Math.abs(currPixel[0] - linePixel[0]) > GRAYSCALE_INTENSITY_THRESHOLD) {
+                        if (Math.abs(linePixel - abovePixel) <= GRAYSCALE_INTENSITY_THRESHOLD
+                                || Math.abs(currPixel - linePixel) > GRAYSCALE_INTENSITY_THRESHOLD) {
                             break;
                         }
 
@@ -719,8 +795,9 @@ public class NurminenDetectionAlgorithm implements DetectionAlgorithm {
 
                     int endX = lineX - 1;
                     int lineWidth = endX - x;
-                    if (lineWidth > HORIZONTAL_EDGE_WIDTH_MINIMUM) {
+                    if (lineWidth > edgeWidthMinimum) {
                         horizontalRulings.add(new Ruling(new Point2D.Float(x, y), new Point2D.Float(endX, y)));
+                        checkedUntil[y] = Math.max(checkedUntil[y], endX);
                     }
                 }
 
@@ -737,31 +814,29 @@ public class NurminenDetectionAlgorithm implements DetectionAlgorithm {
         // along a straight line of a certain length
         ArrayList<Ruling> verticalRulings = new ArrayList<>();
 
-        Raster r = image.getRaster();
-        int width = r.getWidth();
-        int height = r.getHeight();
+        int width = image.getWidth();
+        int height = image.getHeight();
+        byte[] pixels = grayscalePixels(image);
+        float edgeHeightMinimum = scaledToRenderDpi(VERTICAL_EDGE_HEIGHT_MINIMUM);
+
+        // bottommost y covered by an edge found on each column so far, see getHorizontalRulings
+        int[] checkedUntil = new int[width];
+        Arrays.fill(checkedUntil, -1);
 
         for (int y = 0; y < height; y++) {
 
-            int[] lastPixel = r.getPixel(0, y, (int[]) null);
+            int row = y * width;
+            int lastPixel = pixels[row] & 0xff;
 
             for (int x = 1; x < width - 1; x++) {
 
-                int[] currPixel = r.getPixel(x, y, (int[]) null);
+                int currPixel = pixels[row + x] & 0xff;
 
-                int diff = Math.abs(currPixel[0] - lastPixel[0]);
+                int diff = Math.abs(currPixel - lastPixel);
                 if (diff > GRAYSCALE_INTENSITY_THRESHOLD) {
                     // we hit what could be a line
                     // don't bother scanning it if we've hit a pixel in the line before
-                    boolean alreadyChecked = false;
-                    for (Line2D.Float line : verticalRulings) {
-                        if (x == line.getX1() && y >= line.getY1() && y <= line.getY2()) {
-                            alreadyChecked = true;
-                            break;
-                        }
-                    }
-
-                    if (alreadyChecked) {
+                    if (y <= checkedUntil[x]) {
                         lastPixel = currPixel;
                         continue;
                     }
@@ -769,11 +844,11 @@ public class NurminenDetectionAlgorithm implements DetectionAlgorithm {
                     int lineY = y + 1;
 
                     while (lineY < height) {
-                        int[] linePixel = r.getPixel(x, lineY, (int[]) null);
-                        int[] leftPixel = r.getPixel(x - 1, lineY, (int[]) null);
+                        int linePixel = pixels[lineY * width + x] & 0xff;
+                        int leftPixel = pixels[lineY * width + x - 1] & 0xff;
 
-                        if (Math.abs(linePixel[0] - leftPixel[0]) <= GRAYSCALE_INTENSITY_THRESHOLD
-                                || Math.abs(currPixel[0] - linePixel[0]) > GRAYSCALE_INTENSITY_THRESHOLD) {
+                        if (Math.abs(linePixel - leftPixel) <= GRAYSCALE_INTENSITY_THRESHOLD
+                                || Math.abs(currPixel - linePixel) > GRAYSCALE_INTENSITY_THRESHOLD) {
                             break;
                         }
 
@@ -782,8 +857,9 @@ public class NurminenDetectionAlgorithm implements DetectionAlgorithm {
 
                     int endY = lineY - 1;
                     int lineLength = endY - y;
-                    if (lineLength > VERTICAL_EDGE_HEIGHT_MINIMUM) {
+                    if (lineLength > edgeHeightMinimum) {
                         verticalRulings.add(new Ruling(new Point2D.Float(x, y), new Point2D.Float(x, endY)));
+                        checkedUntil[x] = Math.max(checkedUntil[x], endY);
                     }
                 }
 
@@ -794,6 +870,45 @@ public class NurminenDetectionAlgorithm implements DetectionAlgorithm {
         return verticalRulings;
     }
 
+    /**
+     * @return {@code pixelsAtDefaultDpi} converted to pixels at the current render resolution
+     */
+    private float scaledToRenderDpi(float pixelsAtDefaultDpi) {
+        return pixelsAtDefaultDpi * renderDpi / DEFAULT_RENDER_DPI;
+    }
+
+    /**
+     * @return the grey levels of the image's first band, one byte per pixel, row by row. The image's own
+     * buffer is returned when it's laid out that way already (as rendered {@link ImageType#GRAY} pages are).
+     */
+    private static byte[] grayscalePixels(BufferedImage image) {
+        Raster r = image.getRaster();
+        int width = r.getWidth();
+        int height = r.getHeight();
+
+        if (r.getDataBuffer() instanceof DataBufferByte
+                && r.getSampleModel() instanceof ComponentSampleModel
+                && r.getParent() == null && r.getNumBands() == 1) {
+            DataBufferByte dataBuffer = (DataBufferByte) r.getDataBuffer();
+            ComponentSampleModel sampleModel = (ComponentSampleModel) r.getSampleModel();
+            if (dataBuffer.getNumBanks() == 1 && dataBuffer.getOffset() == 0
+                    && sampleModel.getPixelStride() == 1 && sampleModel.getScanlineStride() == width
+                    && sampleModel.getBandOffsets()[0] == 0) {
+                return dataBuffer.getData();
+            }
+        }
+
+        byte[] pixels = new byte[width * height];
+        int[] rowSamples = new int[width];
+        for (int y = 0; y < height; y++) {
+            r.getSamples(r.getMinX(), r.getMinY() + y, width, 1, 0, rowSamples);
+            for (int x = 0; x < width; x++) {
+                pixels[y * width + x] = (byte) rowSamples[x];
+            }
+        }
+        return pixels;
+    }
+
     private PDDocument removeText(PDPage page) throws IOException {
 
         PDFStreamParser parser = new PDFStreamParser(page);
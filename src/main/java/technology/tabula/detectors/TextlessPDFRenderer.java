@@ -0,0 +1,46 @@
+package technology.tabula.detectors;
+
+import java.io.IOException;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType3Font;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.apache.pdfbox.rendering.PageDrawer;
+import org.apache.pdfbox.rendering.PageDrawerParameters;
+import org.apache.pdfbox.util.Matrix;
+import org.apache.pdfbox.util.Vector;
+
+/**
+ * Renders pages without their text: glyphs are skipped while everything else (paths, images, shadings,
+ * text state and clipping) is processed as usual. Equivalent to rendering a copy of the page whose
+ * content stream had its text showing operators stripped, without rewriting anything.
+ */
+class TextlessPDFRenderer extends PDFRenderer {
+
+    TextlessPDFRenderer(PDDocument document) {
+        super(document);
+    }
+
+    @Override
+    protected PageDrawer createPageDrawer(PageDrawerParameters parameters) throws IOException {
+        return new TextlessPageDrawer(parameters);
+    }
+
+    private static final class TextlessPageDrawer extends PageDrawer {
+
+        TextlessPageDrawer(PageDrawerParameters parameters) throws IOException {
+            super(parameters);
+        }
+
+        @Override
+        protected void showFontGlyph(Matrix textRenderingMatrix, PDFont font, int code, Vector displacement) {
+        }
+
+        @Override
+        protected void showType3Glyph(Matrix textRenderingMatrix, PDType3Font font, int code, Vector displacement) {
+        }
+
+    }
+
+}
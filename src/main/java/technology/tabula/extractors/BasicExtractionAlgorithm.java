@@ -5,6 +5,7 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Arrays;
+import java.util.BitSet;
 
 import technology.tabula.Line;
 import technology.tabula.Page;
@@ -37,13 +38,13 @@ public class BasicExtractionAlgorithm implements ExtractionAlgorithm {
     @Override
     public List<Table> extract(Page page) {
         
-        List<TextElement> textElements = page.getText();
+        List<TextElement> textElements = page.getTextView();
         
         if (textElements.size() == 0) {
             return Arrays.asList(new Table[] { Table.empty() });
         }
         
-        List<TextChunk> textChunks = this.verticalRulings == null ? TextElement.mergeWords(page.getText()) : TextElement.mergeWords(page.getText(), this.verticalRulings);
+        List<TextChunk> textChunks = this.verticalRulings == null ? TextElement.mergeWords(textElements) : TextElement.mergeWords(textElements, this.verticalRulings);
         List<Line> lines = TextChunk.groupByLines(textChunks);
         List<Float> columns = null;
         
@@ -63,6 +64,16 @@ public class BasicExtractionAlgorithm implements ExtractionAlgorithm {
             columns = columnPositions(lines);
         }
         
+        // columns are sorted, except that NaN boundaries, which no chunk is left of, come last
+        float[] columnBoundaries = new float[columns.size()];
+        int searchableColumns = 0;
+        for (int j = 0; j < columnBoundaries.length; j++) {
+            columnBoundaries[j] = columns.get(j);
+            if (!Float.isNaN(columnBoundaries[j])) {
+                searchableColumns = j + 1;
+            }
+        }
+
         Table table = new Table(this);
         table.setRect(page.getLeft(), page.getTop(), page.getWidth(), page.getHeight());
         table.setPageNumber(page.getPageNumber());
@@ -84,15 +95,7 @@ public class BasicExtractionAlgorithm implements ExtractionAlgorithm {
                     continue;
                 }
 
-                int j = 0;
-                boolean found = false;
-                for(; j < columns.size(); j++) {
-                    if (tc.getLeft() <= columns.get(j)) {
-                        found = true; 
-                        break;
-                    } 
-                }
-                table.add(tc, i, found ? j : columns.size());
+                table.add(tc, i, columnOf(tc.getLeft(), columnBoundaries, searchableColumns));
             }
         }
         
@@ -105,50 +108,49 @@ public class BasicExtractionAlgorithm implements ExtractionAlgorithm {
     }
     
     
+    // the first column whose boundary isn't left of `left`, or columnBoundaries.length if there's none
+    private static int columnOf(float left, float[] columnBoundaries, int searchableColumns) {
+        int low = 0, high = searchableColumns;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (left <= columnBoundaries[mid]) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low < searchableColumns ? low : columnBoundaries.length;
+    }
+
     /**
      * @param lines must be an array of lines sorted by their +top+ attribute
      * @return a list of column boundaries (x axis)
      */
     public static List<java.lang.Float> columnPositions(List<Line> lines) {
 
+        // every text chunk is merged into the first region (in the order they were made) it horizontally overlaps,
+        // as that region was before the chunk's line; chunks overlapping none make regions of their own
         List<Rectangle> regions = new ArrayList<>();
-        for (TextChunk tc: lines.get(0).getTextElements()) {
-            if (tc.isSameChar(Line.WHITE_SPACE_CHARS)) { 
-                continue; 
-            }
-            Rectangle r = new Rectangle();
-            r.setRect(tc);
-            regions.add(r);
-        }
-        
-        for (Line l: lines.subList(1, lines.size())) {
+        for (Line l: lines) {
             List<TextChunk> lineTextElements = new ArrayList<>();
             for (TextChunk tc: l.getTextElements()) {
-                if (!tc.isSameChar(Line.WHITE_SPACE_CHARS)) { 
+                if (!tc.isSameChar(Line.WHITE_SPACE_CHARS)) {
                     lineTextElements.add(tc);
                 }
             }
-            
-            for (Rectangle cr: regions) {
 
-                List<TextChunk> overlaps = new ArrayList<>();
-                for (TextChunk te: lineTextElements) {
-                    if (cr.horizontallyOverlaps(te)) {
-                        overlaps.add(te);
-                    }
+            int[] regionOf = firstOverlappingRegions(regions, lineTextElements);
+            for (int j = 0; j < lineTextElements.size(); j++) {
+                if (regionOf[j] >= 0) {
+                    regions.get(regionOf[j]).merge(lineTextElements.get(j));
                 }
-                
-                for (TextChunk te: overlaps) {
-                    cr.merge(te);
-                }
-                
-                lineTextElements.removeAll(overlaps);
             }
-            
-            for (TextChunk te: lineTextElements) {
-                Rectangle r = new Rectangle();
-                r.setRect(te);
-                regions.add(r);
+            for (int j = 0; j < lineTextElements.size(); j++) {
+                if (regionOf[j] < 0) {
+                    Rectangle r = new Rectangle();
+                    r.setRect(lineTextElements.get(j));
+                    regions.add(r);
+                }
             }
         }
         
@@ -163,4 +165,74 @@ public class BasicExtractionAlgorithm implements ExtractionAlgorithm {
         
     }
 
+    private static final int REGION_END = 0, CHUNK_END = 1, REGION_START = 2, CHUNK_START = 3;
+
+    /**
+     * For every chunk, the index of the first region that {@link Rectangle#horizontallyOverlaps} it, or -1.
+     * Sweeps left to right over the regions' and chunks' edges: a chunk overlaps the regions that are open
+     * when it starts, and the ones starting before it ends. Edges at the same position end before they start,
+     * as touching isn't overlapping.
+     */
+    private static int[] firstOverlappingRegions(List<Rectangle> regions, List<TextChunk> chunks) {
+        int[] regionOf = new int[chunks.size()];
+        Arrays.fill(regionOf, -1);
+
+        long[] edges = new long[2 * (regions.size() + chunks.size())];
+        int edgeCount = 0;
+        for (int k = 0; k < regions.size(); k++) {
+            edgeCount = addEdges(edges, edgeCount, regions.get(k), k, REGION_START, REGION_END);
+        }
+        for (int j = 0; j < chunks.size(); j++) {
+            edgeCount = addEdges(edges, edgeCount, chunks.get(j), j, CHUNK_START, CHUNK_END);
+        }
+        Arrays.sort(edges, 0, edgeCount);
+
+        BitSet openRegions = new BitSet(regions.size());
+        BitSet openChunks = new BitSet(chunks.size());
+        for (int e = 0; e < edgeCount; e++) {
+            int kind = (int) (edges[e] >>> 28) & 3;
+            int index = (int) edges[e] & 0xFFFFFFF;
+            switch (kind) {
+                case REGION_START:
+                    for (int j = openChunks.nextSetBit(0); j >= 0; j = openChunks.nextSetBit(j + 1)) {
+                        if (regionOf[j] < 0 || index < regionOf[j]) {
+                            regionOf[j] = index;
+                        }
+                    }
+                    openRegions.set(index);
+                    break;
+                case REGION_END:
+                    openRegions.clear(index);
+                    break;
+                case CHUNK_START:
+                    regionOf[index] = openRegions.nextSetBit(0);
+                    openChunks.set(index);
+                    break;
+                case CHUNK_END:
+                    openChunks.clear(index);
+                    break;
+            }
+        }
+        return regionOf;
+    }
+
+    // edges sort by position, then kind; rectangles without a positive width (or with NaN edges) overlap nothing
+    private static int addEdges(long[] edges, int edgeCount, Rectangle r, int index, int startKind, int endKind) {
+        float left = r.getLeft(), right = r.getRight();
+        if (!(left < right)) {
+            return edgeCount;
+        }
+        edges[edgeCount++] = edge(left, startKind, index);
+        edges[edgeCount++] = edge(right, endKind, index);
+        return edgeCount;
+    }
+
+    private static long edge(float position, int kind, int index) {
+        // adding 0 turns -0.0 into 0.0, which are the same position; the bits are then flipped so that
+        // positions order as signed ints
+        int bits = Float.floatToIntBits(position + 0.0f);
+        bits ^= (bits >> 31) & 0x7FFFFFFF;
+        return ((long) bits << 30) | ((long) kind << 28) | index;
+    }
+
 }
@@ -30,10 +30,10 @@ public class SpreadsheetExtractionAlgorithm implements ExtractionAlgorithm {
     };
 
     private static int compareRounded(double d1, double d2) {
-        float d1Rounded = Utils.round(d1, 2);
-        float d2Rounded = Utils.round(d2, 2);
+        long d1Rounded = Utils.quantize(d1, 2);
+        long d2Rounded = Utils.quantize(d2, 2);
 
-        return Float.compare(d1Rounded, d2Rounded);
+        return Long.compare(d1Rounded, d2Rounded);
     }
     
     @Override
@@ -45,48 +45,44 @@ public class SpreadsheetExtractionAlgorithm implements ExtractionAlgorithm {
      * Extract a list of Table from page using rulings as separators
      */
     public List<Table> extract(Page page, List<Ruling> rulings) {
-        // split rulings into horizontal and vertical
-        List<Ruling> horizontalR = new ArrayList<>();
-        List<Ruling> verticalR = new ArrayList<>();
-        
-        for (Ruling r: rulings) {
-            if (r.horizontal()) {
-                horizontalR.add(r);
-            }
-            else if (r.vertical()) {
-                verticalR.add(r);
-            }
-        }
-        horizontalR = Ruling.collapseOrientedRulings(horizontalR);
-        verticalR = Ruling.collapseOrientedRulings(verticalR);
-        
+        return extract(page, collapsedHorizontals(rulings), collapsedVerticals(rulings), true);
+    }
+
+    /**
+     * @param withText false to only lay out the cells, when what's wanted is the shape of the tables
+     */
+    private List<Table> extract(Page page, List<Ruling> horizontalR, List<Ruling> verticalR, boolean withText) {
         List<Cell> cells = findCells(horizontalR, verticalR);
         List<Rectangle> spreadsheetAreas = findSpreadsheetsFromCells(cells);
         
-        List<Table> spreadsheets = new ArrayList<>();
+        List<List<Cell>> overlappingCellsByArea = new ArrayList<>();
+        boolean[] overlapping = new boolean[cells.size()];
         for (Rectangle area: spreadsheetAreas) {
-
             List<Cell> overlappingCells = new ArrayList<>();
-            for (Cell c: cells) {
-                if (c.intersects(area)) {
-
-                    c.setTextElements(TextElement.mergeWords(page.getText(c)));
-                    overlappingCells.add(c);
+            for (int i = 0; i < cells.size(); i++) {
+                if (cells.get(i).intersects(area)) {
+                    overlappingCells.add(cells.get(i));
+                    overlapping[i] = true;
                 }
             }
-
-            List<Ruling> horizontalOverlappingRulings = new ArrayList<>();
-            for (Ruling hr: horizontalR) {
-                if (area.intersectsLine(hr)) {
-                    horizontalOverlappingRulings.add(hr);
-                }
-            }
-            List<Ruling> verticalOverlappingRulings = new ArrayList<>();
-            for (Ruling vr: verticalR) {
-                if (area.intersectsLine(vr)) {
-                    verticalOverlappingRulings.add(vr);
-                }
+            overlappingCellsByArea.add(overlappingCells);
+        }
+        // once for each cell, however many areas it touches
+        for (int i = 0; i < cells.size(); i++) {
+            if (withText && overlapping[i]) {
+                Cell c = cells.get(i);
+                c.setTextElements(TextElement.mergeWords(page.getText(c)));
             }
+        }
+
+        List<Table> spreadsheets = new ArrayList<>();
+        RulingSet rulings = spreadsheetAreas.isEmpty() ? null : RulingSet.of(horizontalR, verticalR);
+        for (int i = 0; i < spreadsheetAreas.size(); i++) {
+            Rectangle area = spreadsheetAreas.get(i);
+            List<Cell> overlappingCells = overlappingCellsByArea.get(i);
+
+            List<Ruling> horizontalOverlappingRulings = rulings.getHorizontalsCrossing(area);
+            List<Ruling> verticalOverlappingRulings = rulings.getVerticalsCrossing(area);
                         
             TableWithRulingLines t = new TableWithRulingLines(area, overlappingCells, horizontalOverlappingRulings, verticalOverlappingRulings, this, page.getPageNumber());
             spreadsheets.add(t);
@@ -95,6 +91,26 @@ public class SpreadsheetExtractionAlgorithm implements ExtractionAlgorithm {
         return spreadsheets;
     }
     
+    private static List<Ruling> collapsedHorizontals(List<Ruling> rulings) {
+        List<Ruling> horizontalR = new ArrayList<>();
+        for (Ruling r: rulings) {
+            if (r.horizontal()) {
+                horizontalR.add(r);
+            }
+        }
+        return Ruling.collapseOrientedRulings(horizontalR);
+    }
+
+    private static List<Ruling> collapsedVerticals(List<Ruling> rulings) {
+        List<Ruling> verticalR = new ArrayList<>();
+        for (Ruling r: rulings) {
+            if (!r.horizontal() && r.vertical()) {
+                verticalR.add(r);
+            }
+        }
+        return Ruling.collapseOrientedRulings(verticalR);
+    }
+
     public boolean isTabular(Page page) {
         
         // if there's no text at all on the page, it's not a table 
@@ -107,7 +123,19 @@ public class SpreadsheetExtractionAlgorithm implements ExtractionAlgorithm {
         // removes white "margins")
         Page minimalRegion = page.getArea(Utils.bounds(page.getText()));
         
-        List<? extends Table> tables = new SpreadsheetExtractionAlgorithm().extract(minimalRegion);
+        // without a single cell, i.e. two horizontal and two vertical rulings crossing at four points,
+        // there's no table with ruling lines; most pages that aren't tabular are told apart right here,
+        // before extracting anything
+        List<Ruling> rulings = minimalRegion.getRulings();
+        List<Ruling> horizontalR = collapsedHorizontals(rulings);
+        List<Ruling> verticalR = collapsedVerticals(rulings);
+        if (horizontalR.size() < 2 || verticalR.size() < 2
+                || Ruling.findIntersectionPoints(horizontalR, verticalR).size() < 4) {
+            return false;
+        }
+        
+        // only the number of rows and columns matters here, and those don't depend on the text of the cells
+        List<? extends Table> tables = extract(minimalRegion, horizontalR, verticalR, false);
         if (tables.isEmpty()) {
             return false;
         }
@@ -131,42 +159,65 @@ public class SpreadsheetExtractionAlgorithm implements ExtractionAlgorithm {
     
     public static List<Cell> findCells(List<Ruling> horizontalRulingLines, List<Ruling> verticalRulingLines) {
         List<Cell> cellsFound = new ArrayList<>();
-        Map<Point2D, Ruling[]> intersectionPoints = Ruling.findIntersections(horizontalRulingLines, verticalRulingLines);
-        List<Point2D> intersectionPointsList = new ArrayList<>(intersectionPoints.keySet());
-        intersectionPointsList.sort(Y_FIRST_POINT_COMPARATOR);
-        
-        for (int i = 0; i < intersectionPointsList.size(); i++) {
-            Point2D topLeft = intersectionPointsList.get(i);
-            Ruling[] hv = intersectionPoints.get(topLeft);
+        RulingIntersections intersections = Ruling.findIntersectionPoints(horizontalRulingLines, verticalRulingLines);
+        int pointCount = intersections.size();
 
-            List<Point2D> xPoints = new ArrayList<>();
-            List<Point2D> yPoints = new ArrayList<>();
+        // sort by rounded y then rounded x; stable, so points rounding the same stay in exact order
+        long[] roundedXs = new long[pointCount], roundedYs = new long[pointCount];
+        Integer[] order = new Integer[pointCount];
+        for (int i = 0; i < pointCount; i++) {
+            roundedXs[i] = Utils.quantize(intersections.getX(i), 2);
+            roundedYs[i] = Utils.quantize(intersections.getY(i), 2);
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> {
+            int compareY = Long.compare(roundedYs[a], roundedYs[b]);
+            return compareY != 0 ? compareY : Long.compare(roundedXs[a], roundedXs[b]);
+        });
+
+        // bucket the intersections by exact row and column, keeping the order above, so the other corners
+        // of a cell are looked up instead of searched for among all the intersections
+        float[] xs = new float[pointCount], ys = new float[pointCount];
+        Ruling[] horizontals = new Ruling[pointCount], verticals = new Ruling[pointCount];
+        Map<Double, List<Integer>> rows = new HashMap<>();
+        Map<Double, List<Integer>> columns = new HashMap<>();
+        for (int i = 0; i < pointCount; i++) {
+            int intersection = order[i];
+            xs[i] = intersections.getX(intersection);
+            ys[i] = intersections.getY(intersection);
+            horizontals[i] = intersections.getHorizontal(intersection);
+            verticals[i] = intersections.getVertical(intersection);
+            rows.computeIfAbsent(coordinateKey(ys[i]), k -> new ArrayList<>()).add(i);
+            columns.computeIfAbsent(coordinateKey(xs[i]), k -> new ArrayList<>()).add(i);
+        }
+
+        for (int i = 0; i < pointCount; i++) {
+            // only the intersections after topLeft are candidates for its other corners
+            List<Integer> xPoints = columns.get(coordinateKey(xs[i]));
+            List<Integer> yPoints = rows.get(coordinateKey(ys[i]));
+            int firstXPoint = firstIndexAfter(xPoints, i);
+            int firstYPoint = firstIndexAfter(yPoints, i);
 
-            for (Point2D p: intersectionPointsList.subList(i, intersectionPointsList.size())) {
-                if (p.getX() == topLeft.getX() && p.getY() > topLeft.getY()) {
-                    xPoints.add(p);
-                }
-                if (p.getY() == topLeft.getY() && p.getX() > topLeft.getX()) {
-                    yPoints.add(p);
-                }
-            }
             outer:
-            for (Point2D xPoint: xPoints) {
+            for (int x = firstXPoint; x < xPoints.size(); x++) {
+                int xPoint = xPoints.get(x);
 
                 // is there a vertical edge b/w topLeft and xPoint?
-                if (!hv[1].equals(intersectionPoints.get(xPoint)[1])) {
+                if (!(ys[xPoint] > ys[i]) || !verticals[i].equals(verticals[xPoint])) {
                     continue;
                 }
-                for (Point2D yPoint: yPoints) {
+                for (int y = firstYPoint; y < yPoints.size(); y++) {
+                    int yPoint = yPoints.get(y);
+
                     // is there an horizontal edge b/w topLeft and yPoint ?
-                    if (!hv[0].equals(intersectionPoints.get(yPoint)[0])) {
+                    if (!(xs[yPoint] > xs[i]) || !horizontals[i].equals(horizontals[yPoint])) {
                         continue;
                     }
-                    Point2D btmRight = new Point2D.Float((float) yPoint.getX(), (float) xPoint.getY());
-                    if (intersectionPoints.containsKey(btmRight) 
-                            && intersectionPoints.get(btmRight)[0].equals(intersectionPoints.get(xPoint)[0])
-                            && intersectionPoints.get(btmRight)[1].equals(intersectionPoints.get(yPoint)[1])) {
-                            cellsFound.add(new Cell(topLeft, btmRight));
+                    int btmRight = findInColumn(columns.get(coordinateKey(xs[yPoint])), ys, ys[xPoint]);
+                    if (btmRight >= 0
+                            && horizontals[btmRight].equals(horizontals[xPoint])
+                            && verticals[btmRight].equals(verticals[yPoint])) {
+                        cellsFound.add(new Cell(new Point2D.Float(xs[i], ys[i]), new Point2D.Float(xs[yPoint], ys[xPoint])));
                         break outer;
                     }
                 }
@@ -180,6 +231,43 @@ public class SpreadsheetExtractionAlgorithm implements ExtractionAlgorithm {
         return cellsFound;
     }
     
+    private static Double coordinateKey(double coordinate) {
+        // 0.0 and -0.0 are the same coordinate, but not the same Double
+        return coordinate + 0.0;
+    }
+
+    /**
+     * Position in {@code pointIndices} (ascending) of the first index greater than {@code index}.
+     */
+    private static int firstIndexAfter(List<Integer> pointIndices, int index) {
+        int position = Collections.binarySearch(pointIndices, index);
+        return position >= 0 ? position + 1 : -position - 1;
+    }
+
+    /**
+     * Index of the intersection at {@code y} in {@code column}, or -1. Intersections in a column are
+     * ordered by y, as they're sorted by rounded y and ties are in the exact order of the intersections.
+     */
+    private static int findInColumn(List<Integer> column, float[] ys, float y) {
+        if (column == null) {
+            return -1;
+        }
+        int low = 0;
+        int high = column.size() - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            float middleY = ys[column.get(middle)];
+            if (middleY < y) {
+                low = middle + 1;
+            } else if (middleY > y) {
+                high = middle - 1;
+            } else {
+                return column.get(middle);
+            }
+        }
+        return -1;
+    }
+    
     public static List<Rectangle> findSpreadsheetsFromCells(List<? extends Rectangle> cells) {
         // via: http://stackoverflow.com/questions/13746284/merging-multiple-adjacent-rectangles-into-one-polygon
         List<Rectangle> rectangles = new ArrayList<>();
@@ -31,8 +31,19 @@ public class CSVWriter implements Writer {
 
     @Override
     public void write(Appendable out, List<Table> tables) throws IOException {
-        try (CSVPrinter printer = new CSVPrinter(out, format)) {
+        try (TableStream stream = open(out)) {
             for (Table table : tables) {
+                stream.writeTable(table);
+            }
+        }
+    }
+
+    @Override
+    public TableStream open(Appendable out) throws IOException {
+        final CSVPrinter printer = new CSVPrinter(out, format);
+        return new TableStream() {
+            @Override
+            public void writeTable(Table table) throws IOException {
                 for (List<RectangularTextContainer> row : table.getRows()) {
                     List<String> cells = new ArrayList<>(row.size());
                     for (RectangularTextContainer<?> cell : row)
@@ -40,8 +51,21 @@ public class CSVWriter implements Writer {
                     printer.printRecord(cells);
                 }
             }
-            printer.flush();
-        }
+
+            @Override
+            public void flush() throws IOException {
+                printer.flush();
+            }
+
+            @Override
+            public void close() throws IOException {
+                try {
+                    printer.flush();
+                } finally {
+                    printer.close();
+                }
+            }
+        };
     }
 
 }
@@ -4,7 +4,7 @@ import com.google.gson.ExclusionStrategy;
 import com.google.gson.FieldAttributes;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
-import com.google.gson.JsonArray;
+import com.google.gson.stream.JsonWriter;
 
 import technology.tabula.Cell;
 import technology.tabula.RectangularTextContainer;
@@ -40,11 +40,38 @@ public class JSONWriter implements Writer {
 
     @Override
     public void write(Appendable out, List<Table> tables) throws IOException {
-        Gson gson = gson();
-        JsonArray jsonElements = new JsonArray();
-        for (Table table : tables)
-            jsonElements.add(gson.toJsonTree(table, Table.class));
-        out.append(gson.toJson(jsonElements));
+        try (TableStream stream = open(out)) {
+            for (Table table : tables)
+                stream.writeTable(table);
+        }
+    }
+
+    /**
+     * Writes the tables as the elements of a JSON array, one at a time. Closing the stream ends the
+     * array but doesn't close {@code out}.
+     */
+    @Override
+    public TableStream open(Appendable out) throws IOException {
+        final Gson gson = gson();
+        final JsonWriter jsonWriter = gson.newJsonWriter(new AppendableWriter(out));
+        jsonWriter.beginArray();
+        return new TableStream() {
+            @Override
+            public void writeTable(Table table) throws IOException {
+                gson.toJson(table, Table.class, jsonWriter);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                jsonWriter.flush();
+            }
+
+            @Override
+            public void close() throws IOException {
+                jsonWriter.endArray();
+                jsonWriter.flush();
+            }
+        };
     }
 
     // - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - //
@@ -58,4 +85,37 @@ public class JSONWriter implements Writer {
                 .create();
     }
 
+    // - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - //
+    private static final class AppendableWriter extends java.io.Writer {
+
+        private final Appendable out;
+
+        AppendableWriter(Appendable out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(char[] chars, int offset, int length) throws IOException {
+            out.append(java.nio.CharBuffer.wrap(chars, offset, length));
+        }
+
+        @Override
+        public void write(String str, int offset, int length) throws IOException {
+            out.append(str, offset, offset + length);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (out instanceof java.io.Flushable) {
+                ((java.io.Flushable) out).flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+
+    }
+
 }
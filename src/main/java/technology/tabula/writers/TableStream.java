@@ -0,0 +1,18 @@
+package technology.tabula.writers;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+
+import technology.tabula.Table;
+
+/**
+ * Incremental output opened by {@link Writer#open(Appendable)}: every table is written as soon as
+ * {@link #writeTable(Table)} is called, so nothing is kept around between calls.
+ * {@link #close()} terminates the output the same way {@link Writer#write(Appendable, java.util.List)} would.
+ */
+public interface TableStream extends Closeable, Flushable {
+
+    void writeTable(Table table) throws IOException;
+
+}
@@ -1,6 +1,7 @@
 package technology.tabula.writers;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 
 import technology.tabula.Table;
@@ -11,4 +12,31 @@ public interface Writer {
 
     void write(Appendable out, List<Table> tables) throws IOException;
 
+    /**
+     * Streaming counterpart of {@link #write(Appendable, List)}: writing the tables one by one to the
+     * returned stream and closing it produces the same output.
+     * <p>
+     * By default the tables are kept until the stream is closed, then written with {@link #write(Appendable, List)};
+     * writers that can write a table at a time override this.
+     */
+    default TableStream open(Appendable out) throws IOException {
+        final List<Table> tables = new ArrayList<>();
+        return new TableStream() {
+            @Override
+            public void writeTable(Table table) {
+                tables.add(table);
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() throws IOException {
+                write(out, tables);
+                tables.clear();
+            }
+        };
+    }
+
 }
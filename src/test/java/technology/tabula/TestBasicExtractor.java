@@ -6,11 +6,15 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Random;
 
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
 import org.junit.Test;
 
 import technology.tabula.extractors.BasicExtractionAlgorithm;
@@ -349,4 +353,62 @@ public class TestBasicExtractor {
         assertEquals(expectedCsv, sb.toString());
     }
 
+    @Test
+    public void testColumnPositionsMatchPairwiseRegionMerging() {
+        PDType1Font font = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+        Random random = new Random(7);
+        for (int trial = 0; trial < 50; trial++) {
+            List<Line> lines = new ArrayList<>();
+            for (int l = 0; l < 40; l++) {
+                Line line = new Line();
+                for (int c = 0, n = random.nextInt(8); c < n; c++) {
+                    // half-point positions, so that chunks and regions often touch without overlapping
+                    float left = random.nextInt(400) / 2f;
+                    float width = random.nextInt(5) == 0 ? 0 : random.nextInt(80) / 2f + 0.5f;
+                    String text = random.nextInt(6) == 0 ? " " : "x";
+                    line.addTextChunk(new TextChunk(new TextElement(l * 10, left, width, 8, font, 1f, text, 1f)));
+                }
+                lines.add(line);
+            }
+
+            assertEquals(pairwiseColumnPositions(lines), BasicExtractionAlgorithm.columnPositions(lines));
+        }
+    }
+
+    // columnPositions as it used to be: every region checked against every chunk of every line
+    private static List<Float> pairwiseColumnPositions(List<Line> lines) {
+        List<Rectangle> regions = new ArrayList<>();
+        for (Line l : lines) {
+            List<TextChunk> lineTextElements = new ArrayList<>();
+            for (TextChunk tc : l.getTextElements()) {
+                if (!tc.isSameChar(Line.WHITE_SPACE_CHARS)) {
+                    lineTextElements.add(tc);
+                }
+            }
+            for (Rectangle cr : regions) {
+                List<TextChunk> overlaps = new ArrayList<>();
+                for (TextChunk te : lineTextElements) {
+                    if (cr.horizontallyOverlaps(te)) {
+                        overlaps.add(te);
+                    }
+                }
+                for (TextChunk te : overlaps) {
+                    cr.merge(te);
+                }
+                lineTextElements.removeAll(overlaps);
+            }
+            for (TextChunk te : lineTextElements) {
+                Rectangle r = new Rectangle();
+                r.setRect(te);
+                regions.add(r);
+            }
+        }
+        List<Float> rv = new ArrayList<>();
+        for (Rectangle r : regions) {
+            rv.add(r.getRight());
+        }
+        Collections.sort(rv);
+        return rv;
+    }
+
 }
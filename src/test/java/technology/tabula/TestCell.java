@@ -43,4 +43,17 @@ public class TestCell {
 		
 		}
 
+	@Test
+	public void testGetTextFollowsTextElements() {
+		Cell cell = new Cell(0, 0, 10, 10);
+		assertEquals("", cell.getText());
+
+		TextElement tElement = new TextElement(0, 0, 5, 5, new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD), 10, "test", 5);
+		List<TextChunk> tList = new ArrayList<>();
+		tList.add(new TextChunk(tElement));
+		cell.setTextElements(tList);
+		assertEquals("test", cell.getText());
+		assertEquals("test", cell.getText(false));
+	}
+
 }
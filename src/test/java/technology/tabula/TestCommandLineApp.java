@@ -127,6 +127,57 @@ public class TestCommandLineApp {
         }));
     }
 
+    @Test
+    public void testGuessSinglePassOption() throws ParseException, IOException {
+        String expectedCsvWithGuessing = UtilsForTesting.loadCsv("src/test/resources/technology/tabula/csv/TestCommandLineApp_testGuessOption_with_guessing.csv");
+        assertEquals(expectedCsvWithGuessing, this.csvFromCommandLineArgs(new String[]{
+                "src/test/resources/technology/tabula/icdar2013-dataset/competition-dataset-eu/eu-001.pdf",
+                "-p", "1",
+                "-f", "CSV",
+                "-g", "--guess-single-pass"
+        }));
+    }
+
+    @Test
+    public void testGuessDpiOption() throws ParseException, IOException {
+        String expectedCsvWithGuessing = UtilsForTesting.loadCsv("src/test/resources/technology/tabula/csv/TestCommandLineApp_testGuessOption_with_guessing.csv");
+        assertEquals(expectedCsvWithGuessing, this.csvFromCommandLineArgs(new String[]{
+                "src/test/resources/technology/tabula/icdar2013-dataset/competition-dataset-eu/eu-001.pdf",
+                "-p", "1",
+                "-f", "CSV",
+                "-g", "--guess-dpi", "72"
+        }));
+    }
+
+    @Test(expected = ParseException.class)
+    public void testGuessDpiMustBePositive() throws ParseException {
+        this.csvFromCommandLineArgs(new String[]{
+                "src/test/resources/technology/tabula/icdar2013-dataset/competition-dataset-eu/eu-001.pdf",
+                "-p", "1",
+                "-g", "--guess-dpi", "0"
+        });
+    }
+
+    @Test
+    public void testCoalesceRulingsOptions() throws ParseException, IOException {
+        String expectedCsv = UtilsForTesting.loadCsv("src/test/resources/technology/tabula/csv/spanning_cells.csv");
+        assertEquals(expectedCsv, this.csvFromCommandLineArgs(new String[]{
+                "src/test/resources/technology/tabula/spanning_cells.pdf",
+                "-p", "1",
+                "-l", "-f", "CSV",
+                "--coalesce-rulings", "--min-ruling-length", "1"
+        }));
+    }
+
+    @Test(expected = ParseException.class)
+    public void testMinRulingLengthMustNotBeNegative() throws ParseException {
+        this.csvFromCommandLineArgs(new String[]{
+                "src/test/resources/technology/tabula/spanning_cells.pdf",
+                "-p", "1",
+                "--min-ruling-length", "-1"
+        });
+    }
+
     @Test
     public void testEncryptedPasswordSupplied() throws ParseException {
         String s = this.csvFromCommandLineArgs(new String[]{
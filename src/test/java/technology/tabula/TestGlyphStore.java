@@ -0,0 +1,72 @@
+package technology.tabula;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.junit.Test;
+
+public class TestGlyphStore {
+
+    @Test
+    public void testTextElementsRoundTrip() {
+        PDFont helvetica = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+        PDFont courier = new PDType1Font(Standard14Fonts.FontName.COURIER);
+        List<TextElement> textElements = new ArrayList<>();
+        textElements.add(new TextElement(5f, 15f, 10f, 20f, helvetica, 1f, "A", 1f, 0f));
+        textElements.add(new TextElement(5f, 25f, 10f, 20f, courier, 2f, "B", 1.5f, 90f));
+        textElements.add(new TextElement(30f, 15f, 8f, 18f, helvetica, 1f, "A", 1f, 0f));
+
+        GlyphStore glyphs = GlyphStore.of(textElements);
+
+        assertEquals(3, glyphs.size());
+        assertEquals(textElements, glyphs.toTextElements());
+        assertEquals(textElements, glyphs.asTextElements());
+        assertSame(courier, glyphs.getFont(1));
+        assertEquals("B", glyphs.getText(1));
+        assertEquals(90f, glyphs.getDirection(1), 0);
+        assertEquals(30f, glyphs.getTop(2), 0);
+    }
+
+    @Test
+    public void testSortedKeepsEveryGlyph() {
+        PDFont helvetica = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+        List<TextElement> textElements = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            textElements.add(new TextElement((i * 7) % 50, (i * 13) % 80, 5f, 10f, helvetica, 1f, String.valueOf(i), 1f, 0f));
+        }
+
+        GlyphStore sorted = GlyphStore.of(textElements).sorted(Rectangle.ILL_DEFINED_ORDER);
+
+        List<TextElement> expected = new ArrayList<>(textElements);
+        Utils.sort(expected, Rectangle.ILL_DEFINED_ORDER);
+        assertEquals(expected, sorted.toTextElements());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetOutOfBounds() {
+        new GlyphStore().get(0);
+    }
+
+    @Test
+    public void testPageTextComesFromItsGlyphs() throws IOException {
+        Page page = UtilsForTesting.getPage("src/test/resources/technology/tabula/eu-002.pdf", 1);
+
+        List<TextElement> view = page.getTextView();
+        assertEquals(page.getGlyphs().size(), view.size());
+        assertEquals(page.getText(), view);
+        assertEquals(page.getText(), page.getGlyphs().toTextElements());
+        assertEquals(TextElement.mergeWords(page.getText()), TextElement.mergeWords(page.getGlyphs(), new ArrayList<Ruling>()));
+
+        Rectangle area = new Rectangle(0, 0, 300, 300);
+        Page pageArea = page.getArea(area);
+        assertEquals(page.getText(area), pageArea.getText());
+        assertEquals(pageArea.getText(), pageArea.getGlyphs().toTextElements());
+    }
+
+}
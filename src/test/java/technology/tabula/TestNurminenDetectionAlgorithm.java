@@ -0,0 +1,81 @@
+package technology.tabula;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.Test;
+
+import technology.tabula.detectors.NurminenDetectionAlgorithm;
+
+public class TestNurminenDetectionAlgorithm {
+
+    @Test
+    public void testSingleRenderPassFindsTheSameTables() throws IOException {
+        Page page = UtilsForTesting.getPage("src/test/resources/technology/tabula/twotables.pdf", 1);
+
+        NurminenDetectionAlgorithm detector = new NurminenDetectionAlgorithm();
+        List<Rectangle> expected = detector.detect(page);
+
+        detector.setSingleRenderPass(true);
+        List<Rectangle> actual = detector.detect(page);
+
+        assertEquals(2, expected.size());
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertTrue(expected.get(i).overlapRatio(actual.get(i)) > 0.9);
+        }
+    }
+
+    @Test
+    public void testSingleRenderPassRendersThePageItWasGiven() throws IOException {
+        Page page = UtilsForTesting.getPage("src/test/resources/technology/tabula/us-020.pdf", 3);
+
+        NurminenDetectionAlgorithm detector = new NurminenDetectionAlgorithm();
+        List<Rectangle> expected = detector.detect(page);
+
+        detector.setSingleRenderPass(true);
+        assertEquals(1, expected.size());
+        assertEquals(expected, detector.detect(page));
+    }
+
+    @Test
+    public void testSingleRenderPassOnAPageNotInItsDocumentFindsNothing() throws IOException {
+        Page page = UtilsForTesting.getPage("src/test/resources/technology/tabula/us-020.pdf", 3);
+        Page elsewhere = Page.Builder.newInstance()
+                .withPageDims(PageDims.of(0, 0, (float) page.getWidth(), (float) page.getHeight()))
+                .withNumber(page.getPDDoc().getNumberOfPages() + 1)
+                .withPdPage(page.getPDPage())
+                .withPdDocument(page.getPDDoc())
+                .withRulings(page.getRulings())
+                .withGlyphs(page.getGlyphs())
+                .build();
+
+        NurminenDetectionAlgorithm detector = new NurminenDetectionAlgorithm();
+        detector.setSingleRenderPass(true);
+        assertTrue(detector.detect(elsewhere).isEmpty());
+    }
+
+    @Test
+    public void testLowerRenderDpiFindsTheSameTables() throws IOException {
+        Page page = UtilsForTesting.getPage("src/test/resources/technology/tabula/twotables.pdf", 1);
+
+        NurminenDetectionAlgorithm detector = new NurminenDetectionAlgorithm();
+        List<Rectangle> expected = detector.detect(page);
+
+        detector.setRenderDpi(72);
+        List<Rectangle> actual = detector.detect(page);
+
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertTrue(expected.get(i).overlapRatio(actual.get(i)) > 0.9);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRenderDpiMustBePositive() {
+        new NurminenDetectionAlgorithm().setRenderDpi(0);
+    }
+
+}
@@ -11,6 +11,8 @@ import org.apache.pdfbox.Loader;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.junit.Test;
 
+import technology.tabula.extractors.SpreadsheetExtractionAlgorithm;
+
 public class TestObjectExtractor {
 
     /*@Test(expected=IOException.class)
@@ -84,6 +86,57 @@ public class TestObjectExtractor {
         }
     }
 
+    @Test
+    public void testRulingsMatchStreamEngine() throws IOException {
+        PDDocument pdf_document = Loader.loadPDF(new File("src/test/resources/technology/tabula/us-020.pdf"));
+
+        try (ObjectExtractor oe = new ObjectExtractor(pdf_document)) {
+            for (int pageNumber = 1; pageNumber <= pdf_document.getNumberOfPages(); pageNumber++) {
+                ObjectExtractorStreamEngine streamEngine = new ObjectExtractorStreamEngine(pdf_document.getPage(pageNumber - 1));
+                streamEngine.processPage(pdf_document.getPage(pageNumber - 1));
+
+                Page page = oe.extractPage(pageNumber);
+                assertFalse(page.getUnprocessedRulings().isEmpty());
+                assertEquals(streamEngine.rulings, page.getUnprocessedRulings());
+            }
+        }
+    }
+
+    @Test
+    public void testCoalescedRulingsMakeTheSameTables() throws IOException {
+        File pdf = new File("src/test/resources/technology/tabula/spanning_cells.pdf");
+        Page page, coalesced;
+        try (ObjectExtractor oe = new ObjectExtractor(Loader.loadPDF(pdf))) {
+            page = oe.extract(1);
+        }
+        try (ObjectExtractor oe = new ObjectExtractor(Loader.loadPDF(pdf))) {
+            oe.setCoalesceRulings(true);
+            oe.setMinimumRulingLength(1);
+            coalesced = oe.extract(1);
+        }
+
+        // its borders are thin filled rectangles
+        assertTrue(coalesced.getUnprocessedRulings().size() * 3 < page.getUnprocessedRulings().size());
+        for (Ruling ruling : coalesced.getUnprocessedRulings()) {
+            assertTrue(ruling.length() >= 1);
+        }
+
+        SpreadsheetExtractionAlgorithm sea = new SpreadsheetExtractionAlgorithm();
+        List<Table> tables = sea.extract(page), coalescedTables = sea.extract(coalesced);
+        assertEquals(tables.size(), coalescedTables.size());
+        for (int i = 0; i < tables.size(); i++) {
+            assertArrayEquals(UtilsForTesting.tableToArrayOfRows(tables.get(i)),
+                    UtilsForTesting.tableToArrayOfRows(coalescedTables.get(i)));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeMinimumRulingLength() throws IOException {
+        try (ObjectExtractor oe = new ObjectExtractor(new PDDocument())) {
+            oe.setMinimumRulingLength(-1);
+        }
+    }
+
     @Test
     public void testDontThrowNPEInShfill() throws IOException {
         PDDocument pdf_document = Loader.loadPDF(new File("src/test/resources/technology/tabula/labor.pdf"));
@@ -0,0 +1,113 @@
+package technology.tabula;
+
+import static org.junit.Assert.*;
+
+import java.awt.geom.Point2D;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.junit.Test;
+
+public class TestPage {
+
+    private static Ruling ruling(float x1, float y1, float x2, float y2) {
+        return new Ruling(new Point2D.Float(x1, y1), new Point2D.Float(x2, y2));
+    }
+
+    private static Page pageWith(List<Ruling> rulings) {
+        return pageWith(new ArrayList<TextElement>(), rulings);
+    }
+
+    private static Page pageWith(List<TextElement> text, List<Ruling> rulings) {
+        return Page.Builder.newInstance()
+                .withPageDims(PageDims.of(0, 0, 200f, 200f))
+                .withNumber(1)
+                .withTextElements(text)
+                .withRulings(new ArrayList<>(rulings))
+                .withMinCharWidth(2f)
+                .withMinCharHeight(2f)
+                .build();
+    }
+
+    // a frame with a rule under the header
+    private static List<Ruling> table() {
+        return Arrays.asList(ruling(10, 10, 190, 10), ruling(10, 30, 190, 30), ruling(10, 190, 190, 190),
+                ruling(10, 10, 10, 190), ruling(190, 10, 190, 190));
+    }
+
+    @Test
+    public void testRulingsAddedLaterAreMergedIn() {
+        List<Ruling> columns = Arrays.asList(ruling(70, 10, 70, 190), ruling(130, 10, 130, 190));
+        List<Ruling> all = new ArrayList<>(table());
+        all.addAll(columns);
+        Page upFront = pageWith(all);
+
+        Page later = pageWith(table());
+        later.getRulings();
+        later.addRulings(Arrays.asList(ruling(70, 10, 70, 190), ruling(130, 10, 130, 190)));
+
+        assertEquals(upFront.getHorizontalRulings(), later.getHorizontalRulings());
+        assertEquals(upFront.getVerticalRulings(), later.getVerticalRulings());
+        assertEquals(upFront.getRulings(), later.getRulings());
+        assertEquals(2, later.getRulingSet().getVerticalsBetween(60, 140).size());
+    }
+
+    @Test
+    public void testAddedRulingIsSnappedAndCollapsed() {
+        Page page = pageWith(table());
+        page.getRulings();
+        // just off the left edge, and carrying on from the header rule
+        page.addRulings(Arrays.asList(ruling(11, 5, 11, 200), ruling(189, 30.5f, 195, 30.5f)));
+
+        List<Ruling> verticals = page.getVerticalRulings();
+        assertEquals(2, verticals.size());
+        assertEquals(ruling(10, 5, 10, 200), verticals.get(0));
+        List<Ruling> horizontals = page.getHorizontalRulings();
+        assertEquals(3, horizontals.size());
+        assertEquals(ruling(10, 30, 195, 30), horizontals.get(1));
+    }
+
+    @Test
+    public void testObliqueRulingIsNotAdded() {
+        Page page = pageWith(table());
+        try {
+            page.addRulings(Arrays.asList(ruling(70, 10, 70, 190), ruling(0, 0, 50, 50)));
+            fail();
+        } catch (UnsupportedOperationException e) {
+            assertEquals(5, page.getUnprocessedRulings().size());
+        }
+    }
+
+    @Test
+    public void testAreaIsLookedUpInThePage() {
+        PDType1Font font = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+        List<TextElement> text = Arrays.asList(new TextElement(15f, 15f, 5f, 8f, font, 8f, "a", 2f),
+                new TextElement(40f, 80f, 4f, 6f, font, 6f, "b", 2f),
+                new TextElement(150f, 150f, 3f, 5f, font, 5f, "c", 2f));
+        Page page = pageWith(text, table());
+        Page area = page.getArea(0, 0, 100, 100);
+
+        // rulings added to the page before the area's are first needed are in them
+        page.addRuling(ruling(70, 10, 70, 190));
+
+        assertEquals(Arrays.asList(text.get(0), text.get(1)), area.getText());
+        assertEquals(4f, area.getMinCharWidth(), 0);
+        assertEquals(6f, area.getMinCharHeight(), 0);
+        // the page's, cropped, and the area's border
+        List<Float> lefts = new ArrayList<>(), tops = new ArrayList<>();
+        for (Ruling r : area.getVerticalRulings()) {
+            lefts.add(r.getLeft());
+            assertTrue(r.getTop() >= 0 && r.getBottom() <= 100);
+        }
+        for (Ruling r : area.getHorizontalRulings()) {
+            tops.add(r.getTop());
+        }
+        assertEquals(Arrays.asList(0f, 10f, 70f, 100f), lefts);
+        assertEquals(Arrays.asList(0f, 10f, 30f, 100f), tops);
+        assertEquals(8, area.getUnprocessedRulings().size());
+    }
+
+}
@@ -0,0 +1,78 @@
+package technology.tabula;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestParallelObjectExtractor {
+
+    private static final File PDF = new File("src/test/resources/technology/tabula/us-020.pdf");
+
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(3);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testPagesMatchSequentialExtraction() throws IOException {
+        try (PDDocument document = Loader.loadPDF(PDF);
+             ObjectExtractor oe = new ObjectExtractor(document);
+             ParallelObjectExtractor poe = new ParallelObjectExtractor(PDF, null, executor, 3)) {
+
+            List<Page> pages = poe.extract();
+            assertEquals(document.getNumberOfPages(), pages.size());
+
+            for (int i = 0; i < pages.size(); i++) {
+                Page expected = oe.extract(i + 1);
+                Page actual = pages.get(i);
+                assertEquals(i + 1, actual.getPageNumber());
+                // fonts belong to different documents, so compare positions and text only
+                assertEquals(expected.getText().toString(), actual.getText().toString());
+                assertEquals(expected.getRulings(), actual.getRulings());
+            }
+        }
+    }
+
+    @Test
+    public void testPagesComeBackInRequestedOrder() throws IOException {
+        try (ParallelObjectExtractor poe = new ParallelObjectExtractor(PDF, null, executor, 2)) {
+            List<Page> pages = poe.extract(Arrays.asList(4, 1, 3));
+            assertEquals(4, pages.get(0).getPageNumber());
+            assertEquals(1, pages.get(1).getPageNumber());
+            assertEquals(3, pages.get(2).getPageNumber());
+        }
+    }
+
+    @Test
+    public void testExtractWrongPageNumber() throws IOException {
+        try (ParallelObjectExtractor poe = new ParallelObjectExtractor(PDF, executor)) {
+            int pageNumber = poe.getNumberOfPages() + 1;
+            try {
+                poe.extract(pageNumber);
+                fail("expected a PageExtractionException");
+            } catch (PageExtractionException e) {
+                assertEquals(pageNumber, e.getPageNumber());
+                assertTrue(e.getCause() instanceof IndexOutOfBoundsException);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,140 @@
+package technology.tabula;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.junit.Test;
+
+import technology.tabula.detectors.NurminenDetectionAlgorithm;
+
+public class TestPrefetchingPageIterator {
+
+    @Test
+    public void testPrefetchedPagesMatchPageIterator() throws IOException {
+        PDDocument pdf_document = Loader.loadPDF(new File("src/test/resources/technology/tabula/us-020.pdf"));
+
+        try (ObjectExtractor oe = new ObjectExtractor(pdf_document)) {
+            List<Page> expected = new ArrayList<>();
+            PageIterator pi = oe.extract();
+            while (pi.hasNext()) {
+                expected.add(pi.next());
+            }
+
+            List<Page> actual = new ArrayList<>();
+            try (PrefetchingPageIterator ppi = oe.extract(Utils.range(1, expected.size() + 1), 2)) {
+                while (ppi.hasNext()) {
+                    actual.add(ppi.next());
+                }
+            }
+
+            assertEquals(expected.size(), actual.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i).getPageNumber(), actual.get(i).getPageNumber());
+                assertEquals(expected.get(i).getText(), actual.get(i).getText());
+            }
+        }
+    }
+
+    @Test
+    public void testFailuresAreReportedPerPage() {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        PrefetchingPageIterator.PageSource source = pageNumber -> {
+            if (pageNumber == 2) {
+                throw new IOException("broken page");
+            }
+            return Page.Builder.newInstance().withPageDims(PageDims.of(0, 0, 10, 10)).withNumber(pageNumber).build();
+        };
+
+        try (PrefetchingPageIterator ppi = new PrefetchingPageIterator(executor, true, source, Arrays.asList(1, 2, 3), 1)) {
+            assertEquals(1, ppi.next().getPageNumber());
+            try {
+                ppi.next();
+                fail("expected a PageExtractionException");
+            } catch (PageExtractionException e) {
+                assertEquals(2, e.getPageNumber());
+                assertEquals("broken page", e.getCause().getMessage());
+            }
+            assertEquals(3, ppi.next().getPageNumber());
+            assertFalse(ppi.hasNext());
+        }
+    }
+
+    @Test
+    public void testRuntimeFailuresAreReportedPerPage() {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        PrefetchingPageIterator.PageSource source = pageNumber -> {
+            if (pageNumber == 2) {
+                throw new IllegalStateException("malformed page");
+            }
+            return Page.Builder.newInstance().withPageDims(PageDims.of(0, 0, 10, 10)).withNumber(pageNumber).build();
+        };
+
+        try (PrefetchingPageIterator ppi = new PrefetchingPageIterator(executor, true, source, Arrays.asList(1, 2, 3), 2)) {
+            assertEquals(1, ppi.next().getPageNumber());
+            try {
+                ppi.next();
+                fail("expected a PageExtractionException");
+            } catch (PageExtractionException e) {
+                assertEquals(2, e.getPageNumber());
+                assertTrue(e.getCause() instanceof IllegalStateException);
+            }
+            assertEquals(3, ppi.next().getPageNumber());
+        }
+    }
+
+    @Test
+    public void testPagesCanBeDetectedOnWhileTheNextAreRead() throws IOException {
+        NurminenDetectionAlgorithm detector = new NurminenDetectionAlgorithm();
+        try (PDDocument document = Loader.loadPDF(new File("src/test/resources/technology/tabula/us-020.pdf"))) {
+            ObjectExtractor oe = new ObjectExtractor(document);
+            int pages = document.getNumberOfPages();
+            List<String> expected = new ArrayList<>();
+            for (int i = 1; i <= pages; i++) {
+                expected.add(detector.detect(oe.extract(i)).toString());
+            }
+
+            List<String> actual = new ArrayList<>();
+            try (PrefetchingPageIterator ppi = oe.extract(Utils.range(1, pages + 1), 2)) {
+                while (ppi.hasNext()) {
+                    actual.add(detector.detect(ppi.next()).toString());
+                }
+            }
+            assertEquals(expected, actual);
+        }
+    }
+
+    @Test
+    public void testPrefetchDepthIsBounded() {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        final AtomicInteger extracted = new AtomicInteger();
+        PrefetchingPageIterator.PageSource source = pageNumber -> {
+            extracted.incrementAndGet();
+            return Page.Builder.newInstance().withPageDims(PageDims.of(0, 0, 10, 10)).withNumber(pageNumber).build();
+        };
+
+        try (PrefetchingPageIterator ppi = new PrefetchingPageIterator(executor, true, source, Utils.range(1, 101), 3)) {
+            ppi.next();
+            assertTrue(extracted.get() <= 4);
+        }
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testNextOnExhaustedIteratorThrows() {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (PrefetchingPageIterator ppi = new PrefetchingPageIterator(executor, true, pageNumber -> null, new ArrayList<Integer>(), 1)) {
+            ppi.next();
+        }
+    }
+
+}
@@ -2,6 +2,11 @@ package technology.tabula;
 
 import static org.junit.Assert.*;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
 import org.junit.Test;
 
 public class TestRectangleSpatialIndex {
@@ -18,4 +23,57 @@ public class TestRectangleSpatialIndex {
 
 	}
 
+	@Test
+	public void testQueriesMatchScanningEveryRectangle() {
+		Random random = new Random(42);
+		List<Rectangle> rectangles = new ArrayList<>();
+		for (int i = 0; i < 500; i++) {
+			// mostly glyph-sized, a few spanning much of the page
+			float width = i % 50 == 0 ? 300 * random.nextFloat() : 10 * random.nextFloat();
+			rectangles.add(new Rectangle(800 * random.nextFloat(), 600 * random.nextFloat(), width, 12 * random.nextFloat()));
+		}
+		RectangleSpatialIndex<Rectangle> index = RectangleSpatialIndex.of(rectangles);
+
+		for (int q = 0; q < 200; q++) {
+			Rectangle area = new Rectangle(850 * random.nextFloat() - 25, 650 * random.nextFloat() - 25,
+					200 * random.nextFloat(), 200 * random.nextFloat());
+			List<Rectangle> contained = new ArrayList<>(), intersecting = new ArrayList<>();
+			for (Rectangle r : rectangles) {
+				if (r.getLeft() <= area.getRight() && r.getRight() >= area.getLeft()
+						&& r.getTop() <= area.getBottom() && r.getBottom() >= area.getTop()) {
+					intersecting.add(r);
+					if (area.contains(r)) {
+						contained.add(r);
+					}
+				}
+			}
+			assertEquals(contained, index.contains(area));
+			assertEquals(intersecting, index.intersects(area));
+		}
+	}
+
+	@Test
+	public void testAddedRectanglesComeBackInReadingOrder() {
+		Rectangle first = new Rectangle(0, 0, 10, 10);
+		Rectangle second = new Rectangle(0, 20, 10, 10);
+		Rectangle third = new Rectangle(30, 0, 10, 10);
+
+		RectangleSpatialIndex<Rectangle> index = new RectangleSpatialIndex<>();
+		index.add(third);
+		index.add(second);
+		index.add(first);
+
+		assertEquals(Arrays.asList(first, second, third), index.contains(new Rectangle(-1, -1, 50, 50)));
+		assertEquals(Arrays.asList(third, second, first),
+				RectangleSpatialIndex.of(Arrays.asList(third, second, first)).contains(new Rectangle(-1, -1, 50, 50)));
+	}
+
+	@Test
+	public void testEmptyIndex() {
+		RectangleSpatialIndex<Rectangle> index = new RectangleSpatialIndex<>();
+
+		assertTrue(index.contains(new Rectangle(0, 0, 10, 10)).isEmpty());
+		assertTrue(index.intersects(new Rectangle(0, 0, 10, 10)).isEmpty());
+	}
+
 }
@@ -2,6 +2,12 @@ package technology.tabula;
 
 import static org.junit.Assert.*;
 
+import java.awt.geom.Point2D;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
 import org.junit.Before;
 import org.junit.Test;
 
@@ -104,4 +110,50 @@ public class TestRuling {
 
 	}
 
+	@Test
+	public void testIntersectionPointsMatchCheckingEveryPair() {
+		Random random = new Random(7);
+		List<Ruling> horizontals = new ArrayList<>(), verticals = new ArrayList<>();
+		for (int i = 0; i < 60; i++) {
+			// distinct tops and lefts, so no two pairs of rulings meet at the same point
+			float left = random.nextInt(400);
+			horizontals.add(new Ruling(i * 10, left, random.nextInt(400 - (int) left) + 1, 0));
+			float top = random.nextInt(600);
+			verticals.add(new Ruling(top, i * 7 + 3, 0, random.nextInt(600 - (int) top) + 1));
+		}
+
+		List<float[]> expected = new ArrayList<>();
+		for (int h = 0; h < horizontals.size(); h++) {
+			for (int v = 0; v < verticals.size(); v++) {
+				Point2D point = horizontals.get(h).intersectionPoint(verticals.get(v));
+				if (point != null) {
+					expected.add(new float[] { (float) point.getX(), (float) point.getY(), h, v });
+				}
+			}
+		}
+		expected.sort((a, b) -> a[1] != b[1] ? Float.compare(a[1], b[1]) : Float.compare(a[0], b[0]));
+
+		RulingIntersections intersections = Ruling.findIntersectionPoints(horizontals, verticals);
+		assertEquals(expected.size(), intersections.size());
+		for (int i = 0; i < expected.size(); i++) {
+			float[] e = expected.get(i);
+			assertEquals(e[0], intersections.getX(i), 0);
+			assertEquals(e[1], intersections.getY(i), 0);
+			assertEquals((int) e[2], intersections.getHorizontalIndex(i));
+			assertEquals((int) e[3], intersections.getVerticalIndex(i));
+			assertEquals(horizontals.get((int) e[2]).expand(2), intersections.getHorizontal(i));
+			assertEquals(verticals.get((int) e[3]).expand(2), intersections.getVertical(i));
+		}
+
+		Map<Point2D, Ruling[]> map = Ruling.findIntersections(horizontals, verticals);
+		assertEquals(expected.size(), map.size());
+		int i = 0;
+		for (Map.Entry<Point2D, Ruling[]> entry : map.entrySet()) {
+			assertEquals(new Point2D.Float(intersections.getX(i), intersections.getY(i)), entry.getKey());
+			assertEquals(intersections.getHorizontal(i), entry.getValue()[0]);
+			assertEquals(intersections.getVertical(i), entry.getValue()[1]);
+			i++;
+		}
+	}
+
 }
@@ -0,0 +1,169 @@
+package technology.tabula;
+
+import static org.junit.Assert.*;
+
+import java.awt.geom.PathIterator;
+import java.awt.geom.Point2D;
+import java.util.List;
+
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.graphics.state.PDGraphicsState;
+import org.junit.Test;
+
+public class TestRulingCollector {
+
+    private static final PDRectangle PAGE = new PDRectangle(0, 0, 600, 800);
+
+    @Test
+    public void testStraightLinesMakeRulings() {
+        RulingCollector collector = new RulingCollector(new PDPage(PAGE));
+        PDGraphicsState graphicsState = new PDGraphicsState(PAGE);
+
+        collector.moveTo(100, 700);
+        collector.lineTo(300, 700);
+        collector.lineTo(300, 600);
+        collector.strokeOrFillPath(graphicsState, false);
+
+        List<Ruling> rulings = collector.getRulings();
+        assertEquals(2, rulings.size());
+        assertTrue(rulings.get(0).horizontal());
+        assertEquals(100f, rulings.get(0).getLeft(), 0.01);
+        assertEquals(300f, rulings.get(0).getRight(), 0.01);
+        assertTrue(rulings.get(1).vertical());
+    }
+
+    @Test
+    public void testPathWithACurveMakesNoRulings() {
+        RulingCollector collector = new RulingCollector(new PDPage(PAGE));
+        PDGraphicsState graphicsState = new PDGraphicsState(PAGE);
+
+        collector.moveTo(100, 700);
+        collector.lineTo(300, 700);
+        collector.curveTo(310, 690, 310, 610, 300, 600);
+        collector.lineTo(100, 600);
+        collector.strokeOrFillPath(graphicsState, false);
+
+        assertTrue(collector.getRulings().isEmpty());
+    }
+
+    @Test
+    public void testRulingsFollowTheClipAsItChanges() {
+        RulingCollector collector = new RulingCollector(new PDPage(PAGE));
+        PDGraphicsState graphicsState = new PDGraphicsState(PAGE);
+
+        collector.moveTo(100, 700);
+        collector.lineTo(500, 700);
+        collector.strokeOrFillPath(graphicsState, false);
+
+        // clip to x in [200, 400]
+        PDGraphicsState clipped = graphicsState.clone();
+        collector.appendRectangle(new Point2D.Float(200, 0), new Point2D.Float(400, 0),
+                new Point2D.Float(400, 800), new Point2D.Float(200, 800));
+        collector.clip(PathIterator.WIND_NON_ZERO);
+        collector.endPath(clipped);
+        collector.moveTo(100, 650);
+        collector.lineTo(500, 650);
+        collector.strokeOrFillPath(clipped, false);
+
+        // and back to the unclipped state
+        collector.moveTo(100, 600);
+        collector.lineTo(500, 600);
+        collector.strokeOrFillPath(graphicsState, false);
+
+        // page coordinates, from the top
+        List<Ruling> rulings = collector.getRulings();
+        assertEquals(100f, horizontalAt(rulings, 100).getLeft(), 0.01);
+        assertEquals(500f, horizontalAt(rulings, 100).getRight(), 0.01);
+        assertEquals(200f, horizontalAt(rulings, 150).getLeft(), 0.01);
+        assertEquals(400f, horizontalAt(rulings, 150).getRight(), 0.01);
+        assertEquals(100f, horizontalAt(rulings, 200).getLeft(), 0.01);
+        assertEquals(500f, horizontalAt(rulings, 200).getRight(), 0.01);
+    }
+
+    @Test
+    public void testThinFilledRectangleMakesOneRulingWhenCoalescing() {
+        PDGraphicsState graphicsState = new PDGraphicsState(PAGE);
+        for (boolean coalesce : new boolean[] { false, true }) {
+            RulingCollector collector = new RulingCollector(new PDPage(PAGE), coalesce);
+            collector.appendRectangle(new Point2D.Float(100, 700), new Point2D.Float(300, 700),
+                    new Point2D.Float(300, 701), new Point2D.Float(100, 701));
+            collector.strokeOrFillPath(graphicsState, true);
+
+            List<Ruling> rulings = collector.getRulings();
+            if (!coalesce) {
+                assertEquals(4, rulings.size());
+                continue;
+            }
+            assertEquals(1, rulings.size());
+            assertTrue(rulings.get(0).horizontal());
+            assertEquals(99.5f, rulings.get(0).getTop(), 0.01);
+            assertEquals(100f, rulings.get(0).getLeft(), 0.01);
+            assertEquals(300f, rulings.get(0).getRight(), 0.01);
+        }
+    }
+
+    @Test
+    public void testDashesAlongALineAreMergedWhenCoalescing() {
+        RulingCollector collector = new RulingCollector(new PDPage(PAGE), true);
+        PDGraphicsState graphicsState = new PDGraphicsState(PAGE);
+
+        // dashes 3 long, 1.5 apart, drawn right to left across a vertical line drawn in between
+        for (int i = 49; i >= 0; i--) {
+            collector.moveTo(100 + 4.5f * i, 700);
+            collector.lineTo(103 + 4.5f * i, 700);
+            collector.strokeOrFillPath(graphicsState, false);
+            if (i == 25) {
+                collector.moveTo(200, 750);
+                collector.lineTo(200, 650);
+                collector.strokeOrFillPath(graphicsState, false);
+            }
+        }
+        // and dots 5 apart, too far to be merged
+        for (int i = 0; i < 10; i++) {
+            collector.appendRectangle(new Point2D.Float(100 + 5 * i, 600), new Point2D.Float(100.5f + 5 * i, 600),
+                    new Point2D.Float(100.5f + 5 * i, 600.5f), new Point2D.Float(100 + 5 * i, 600.5f));
+            collector.strokeOrFillPath(graphicsState, true);
+        }
+
+        List<Ruling> rulings = collector.getRulings();
+        assertEquals(12, rulings.size());
+        Ruling dashed = horizontalAt(rulings, 100);
+        assertEquals(100f, dashed.getLeft(), 0.01);
+        assertEquals(323.5f, dashed.getRight(), 0.01);
+
+        collector.dropRulingsShorterThan(1);
+        assertEquals(2, collector.getRulings().size());
+        assertSame(dashed, horizontalAt(collector.getRulings(), 100));
+    }
+
+    @Test
+    public void testCurvedPathLeavesCoalescedRulingsAlone() {
+        RulingCollector collector = new RulingCollector(new PDPage(PAGE), true);
+        PDGraphicsState graphicsState = new PDGraphicsState(PAGE);
+
+        collector.moveTo(100, 700);
+        collector.lineTo(300, 700);
+        collector.strokeOrFillPath(graphicsState, false);
+        // would extend the ruling above to 400, but the path makes no rulings
+        collector.moveTo(300, 700);
+        collector.lineTo(400, 700);
+        collector.curveTo(410, 690, 410, 610, 400, 600);
+        collector.strokeOrFillPath(graphicsState, false);
+
+        List<Ruling> rulings = collector.getRulings();
+        assertEquals(1, rulings.size());
+        assertEquals(300f, rulings.get(0).getRight(), 0.01);
+    }
+
+    private static Ruling horizontalAt(List<Ruling> rulings, float y) {
+        for (Ruling ruling : rulings) {
+            if (ruling.horizontal() && Utils.feq(ruling.getTop(), y)) {
+                return ruling;
+            }
+        }
+        fail("no horizontal ruling at " + y);
+        return null;
+    }
+
+}
@@ -0,0 +1,159 @@
+package technology.tabula;
+
+import static org.junit.Assert.*;
+
+import java.awt.geom.Point2D;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class TestRulingSet {
+
+    private static List<Ruling> randomRulings(Random random, boolean horizontal, int count) {
+        List<Ruling> rulings = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            // a few share a position
+            float position = i % 10 == 0 && i > 0 ? positionOf(rulings.get(i - 1), horizontal) : 600 * random.nextFloat();
+            float start = 600 * random.nextFloat(), end = start + 200 * random.nextFloat();
+            // and a few run backwards
+            if (i % 7 == 0) {
+                float swap = start; start = end; end = swap;
+            }
+            rulings.add(horizontal ? new Ruling(new Point2D.Float(start, position), new Point2D.Float(end, position))
+                    : new Ruling(new Point2D.Float(position, start), new Point2D.Float(position, end)));
+        }
+        return rulings;
+    }
+
+    private static float positionOf(Ruling r, boolean horizontal) {
+        return horizontal ? r.getTop() : r.getLeft();
+    }
+
+    @Test
+    public void testQueriesMatchGoingThroughEveryRuling() {
+        Random random = new Random(7);
+        List<Ruling> horizontals = randomRulings(random, true, 300);
+        List<Ruling> verticals = randomRulings(random, false, 300);
+        // without a position: at NaN, and given as the wrong kind
+        horizontals.add(new Ruling(new Point2D.Float(java.lang.Float.NaN, 10), new Point2D.Float(50, 10)));
+        horizontals.add(new Ruling(new Point2D.Float(100, 100), new Point2D.Float(100, 400)));
+        RulingSet set = RulingSet.of(horizontals, verticals);
+
+        assertEquals(horizontals, set.getHorizontals());
+        assertEquals(verticals, set.getVerticals());
+
+        for (int q = 0; q < 100; q++) {
+            Rectangle area = new Rectangle(650 * random.nextFloat() - 25, 650 * random.nextFloat() - 25,
+                    250 * random.nextFloat(), 250 * random.nextFloat());
+
+            List<Ruling> crossingH = new ArrayList<>(), crossingV = new ArrayList<>();
+            for (Ruling r : horizontals) {
+                if (area.intersectsLine(r)) crossingH.add(r);
+            }
+            for (Ruling r : verticals) {
+                if (area.intersectsLine(r)) crossingV.add(r);
+            }
+            assertEquals(crossingH, set.getHorizontalsCrossing(area));
+            assertEquals(crossingV, set.getVerticalsCrossing(area));
+
+            List<Ruling> betweenV = new ArrayList<>();
+            for (Ruling r : verticals) {
+                if (r.getLeft() >= area.getLeft() && r.getLeft() <= area.getRight()) betweenV.add(r);
+            }
+            assertEquals(betweenV, set.getVerticalsBetween(area.getLeft(), area.getRight()));
+
+            // clipped copies, and the one at NaN never equals itself
+            RulingSet cropped = set.crop(area);
+            assertEquals(Ruling.cropRulingsToArea(horizontals, area).toString(), cropped.getHorizontals().toString());
+            assertEquals(Ruling.cropRulingsToArea(verticals, area).toString(), cropped.getVerticals().toString());
+            List<Ruling> all = new ArrayList<>(verticals);
+            all.addAll(horizontals);
+            assertEquals(Ruling.cropRulingsToArea(all, area).toString(), cropped.getRulings().toString());
+        }
+    }
+
+    @Test
+    public void testAddedRulingsComeAfterTheOthers() {
+        Random random = new Random(11);
+        List<Ruling> horizontals = randomRulings(random, true, 100), added = randomRulings(random, true, 20);
+        RulingSet set = RulingSet.of(horizontals, new ArrayList<Ruling>()).withRulings(added, new ArrayList<Ruling>());
+
+        List<Ruling> expected = new ArrayList<>(horizontals);
+        expected.addAll(added);
+        assertEquals(expected, set.getHorizontals());
+        RulingSet rebuilt = RulingSet.of(expected, new ArrayList<Ruling>());
+        for (int q = 0; q < 50; q++) {
+            float top = 600 * random.nextFloat(), bottom = top + 100 * random.nextFloat();
+            assertEquals(rebuilt.getHorizontalsBetween(top, bottom), set.getHorizontalsBetween(top, bottom));
+            Rectangle area = new Rectangle(top, 600 * random.nextFloat(), 100, bottom - top);
+            assertEquals(rebuilt.getHorizontalsCrossing(area), set.getHorizontalsCrossing(area));
+        }
+    }
+
+    @Test
+    public void testChangingTheListsLeavesTheQueriesAlone() {
+        Ruling at150 = new Ruling(new Point2D.Float(150, 0), new Point2D.Float(150, 100));
+        Ruling at30 = new Ruling(new Point2D.Float(30, 0), new Point2D.Float(30, 100));
+        Ruling at90 = new Ruling(new Point2D.Float(90, 0), new Point2D.Float(90, 100));
+        Ruling top = new Ruling(new Point2D.Float(0, 10), new Point2D.Float(200, 10));
+        RulingSet set = RulingSet.of(Arrays.asList(top), Arrays.asList(at150, at30, at90));
+
+        // as BasicExtractionAlgorithm does with the verticals it's given
+        Collections.sort(set.getVerticals(), (a, b) -> Float.compare(a.getLeft(), b.getLeft()));
+        set.getRulings().clear();
+        set.getHorizontals().clear();
+
+        assertEquals(Arrays.asList(at30), set.getVerticalsBetween(20, 40));
+        assertEquals(Arrays.asList(at150, at90), set.getVerticalsBetween(80, 160));
+        assertEquals(Arrays.asList(top), set.getHorizontalsCrossing(new Rectangle(5, 50, 10, 10)));
+        assertSame(at90, set.getVertical(set.firstVerticalAfter(40)));
+        // the caller's list is the caller's to reorder
+        assertEquals(Arrays.asList(at30, at90, at150), set.getVerticals());
+    }
+
+    @Test
+    public void testChangingAPagesListsLeavesItsRulingsAlone() {
+        Page page = Page.Builder.newInstance()
+                .withPageDims(PageDims.of(0, 0, 200f, 200f))
+                .withNumber(1)
+                .withTextElements(new ArrayList<TextElement>())
+                .withRulings(new ArrayList<>(Arrays.asList(new Ruling(new Point2D.Float(150, 0), new Point2D.Float(150, 100)),
+                        new Ruling(new Point2D.Float(30, 0), new Point2D.Float(30, 100)),
+                        new Ruling(new Point2D.Float(0, 10), new Point2D.Float(200, 10)))))
+                .withMinCharWidth(2f)
+                .withMinCharHeight(2f)
+                .build();
+        List<Ruling> verticals = new ArrayList<>(page.getVerticalRulings());
+
+        Collections.reverse(page.getVerticalRulings());
+        page.addRuling(new Ruling(new Point2D.Float(90, 0), new Point2D.Float(90, 100)));
+
+        assertEquals(verticals.get(0), page.getRulingSet().getVerticalsBetween(20, 40).get(0));
+        List<Float> lefts = new ArrayList<>();
+        for (Ruling r : page.getVerticalRulings()) {
+            lefts.add(r.getLeft());
+        }
+        assertEquals(Arrays.asList(30f, 90f, 150f), lefts);
+    }
+
+    @Test
+    public void testCroppingIsLazy() {
+        Ruling h = new Ruling(new Point2D.Float(0, 50), new Point2D.Float(100, 50));
+        Ruling v = new Ruling(new Point2D.Float(50, 0), new Point2D.Float(50, 100));
+        RulingSet cropped = RulingSet.of(Arrays.asList(h), Arrays.asList(v)).crop(new Rectangle(25, 25, 50, 50));
+
+        // clipped on first use: moving a ruling before then shows in the view
+        h.setLine(0, 40, 100, 40);
+
+        assertEquals(1, cropped.getHorizontals().size());
+        assertEquals(40f, cropped.getHorizontals().get(0).getTop(), 0);
+        assertEquals(25f, cropped.getHorizontals().get(0).getLeft(), 0);
+        assertEquals(75f, cropped.getHorizontals().get(0).getRight(), 0);
+        assertSame(cropped.getVerticals(), cropped.getVerticals());
+    }
+
+}
@@ -17,6 +17,8 @@ import java.util.Map;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
 import org.junit.Test;
 
 import technology.tabula.extractors.SpreadsheetExtractionAlgorithm;
@@ -156,6 +158,58 @@ public class TestSpreadsheetExtractor {
         assertFalse(cells.get(0).intersects(cells.get(1)));
     }
 
+    @Test
+    public void testFindCellsInLargeGrid() {
+        List<Ruling> horizontals = new ArrayList<>();
+        List<Ruling> verticals = new ArrayList<>();
+        for (int row = 0; row <= 60; row++) {
+            horizontals.add(new Ruling(new Point2D.Float(10f, 10f + row * 12.5f), new Point2D.Float(810f, 10f + row * 12.5f)));
+        }
+        for (int col = 0; col <= 40; col++) {
+            verticals.add(new Ruling(new Point2D.Float(10f + col * 20f, 10f), new Point2D.Float(10f + col * 20f, 760f)));
+        }
+
+        List<Cell> cells = SpreadsheetExtractionAlgorithm.findCells(horizontals, verticals);
+
+        // one cell per grid square, row by row
+        assertEquals(60 * 40, cells.size());
+        for (int i = 0; i < cells.size(); i++) {
+            Cell cell = cells.get(i);
+            assertEquals(10f + (i / 40) * 12.5f, cell.getTop(), 0.01);
+            assertEquals(10f + (i % 40) * 20f, cell.getLeft(), 0.01);
+            assertEquals(12.5f, cell.getHeight(), 0.01);
+            assertEquals(20f, cell.getWidth(), 0.01);
+        }
+    }
+
+    @Test
+    public void testLayOutLargeGridWithRowSpanningCell() {
+        // a 60x40 grid whose first cell spans the first two rows
+        List<Cell> cells = new ArrayList<>();
+        for (int row = 0; row < 60; row++) {
+            for (int col = 0; col < 40; col++) {
+                if (row == 1 && col == 0) {
+                    continue;
+                }
+                cells.add(new Cell(10f + row * 12.5f, 10f + col * 20f, 20f, row == 0 && col == 0 ? 25f : 12.5f));
+            }
+        }
+
+        TableWithRulingLines table = new TableWithRulingLines(Rectangle.boundingBoxOf(cells), cells,
+                new ArrayList<Ruling>(), new ArrayList<Ruling>(), new SpreadsheetExtractionAlgorithm(), 1);
+
+        assertEquals(60, table.getRowCount());
+        assertEquals(40, table.getColCount());
+        assertEquals(25f, table.getCell(0, 0).getHeight(), 0.01);
+        assertEquals(TextChunk.EMPTY, table.getCell(1, 0));
+        for (int row = 0; row < 60; row++) {
+            for (int col = row == 1 ? 1 : 0; col < 40; col++) {
+                assertEquals(10f + row * 12.5f, table.getCell(row, col).getTop(), 0.01);
+                assertEquals(10f + col * 20f, table.getCell(row, col).getLeft(), 0.01);
+            }
+        }
+    }
+
     @Test
     public void testFindSpreadsheetsFromCells() throws IOException {
 
@@ -192,6 +246,27 @@ public class TestSpreadsheetExtractor {
         page.getPDDoc().close();
     }
 
+    @Test
+    public void testCellsGetTheWordsOfTheirText() throws IOException {
+        Page page = UtilsForTesting
+                .getPage("src/test/resources/technology/tabula/spanning_cells.pdf", 1);
+        List<Table> tables = new SpreadsheetExtractionAlgorithm().extract(page);
+
+        int cells = 0;
+        for (Table table : tables) {
+            for (List<RectangularTextContainer> row : table.getRows()) {
+                for (RectangularTextContainer cell : row) {
+                    if (cell instanceof Cell) {
+                        assertEquals(TextElement.mergeWords(page.getText(cell)), cell.getTextElements());
+                        cells++;
+                    }
+                }
+            }
+        }
+        assertTrue(cells > 0);
+        page.getPDDoc().close();
+    }
+
     @Test
     public void testSpanningCells() throws IOException {
         Page page = UtilsForTesting
@@ -261,6 +336,29 @@ public class TestSpreadsheetExtractor {
         page.getPDDoc().close();
     }
 
+    @Test
+    public void testPageWithoutCrossingRulingsIsNotTabular() {
+        PDType1Font font = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+        List<TextElement> text = new ArrayList<>();
+        for (int row = 0; row < 5; row++) {
+            for (int col = 0; col < 3; col++) {
+                text.add(new TextElement(10f + row * 12f, 10f + col * 50f, 5f, 8f, font, 8f, "x", 2f));
+            }
+        }
+        // a rule under the header and one down the first column, but no cell
+        List<Ruling> rulings = new ArrayList<>();
+        rulings.add(new Ruling(new Point2D.Float(5f, 20f), new Point2D.Float(170f, 20f)));
+        rulings.add(new Ruling(new Point2D.Float(50f, 5f), new Point2D.Float(50f, 70f)));
+        Page page = Page.Builder.newInstance()
+                .withPageDims(PageDims.of(0, 0, 200f, 100f))
+                .withNumber(1)
+                .withTextElements(text)
+                .withRulings(rulings)
+                .build();
+
+        assertFalse(new SpreadsheetExtractionAlgorithm().isTabular(page));
+    }
+
     @Test
     public void testSpreadsheetWithNoBoundingFrameShouldBeSpreadsheet() throws IOException {
         Page page = UtilsForTesting.getAreaFromPage("src/test/resources/technology/tabula/spreadsheet_no_bounding_frame.pdf", 1,
@@ -544,4 +642,32 @@ public class TestSpreadsheetExtractor {
         page.getPDDoc().close();
     }    
 
+    // Since the spatial index returns text in the page's reading order rather than sorting each query's result, the
+    // text of a cell overlapping others comes out in that order: here a chart legend, "EU-15" before "EU-12".
+    @Test
+    public void testCellTextFollowsThePagesReadingOrder() throws IOException {
+        Page page = UtilsForTesting.getPage("src/test/resources/technology/tabula/icdar2013-dataset/competition-dataset-eu/eu-015.pdf", 2);
+        List<String> texts = new ArrayList<>();
+        for (Table table : new SpreadsheetExtractionAlgorithm().extract(page)) {
+            for (List<RectangularTextContainer> row : table.getRows()) {
+                for (RectangularTextContainer cell : row) {
+                    if (cell.getText().startsWith("Free movement of persons")) {
+                        texts.add(cell.getText());
+                    }
+                }
+            }
+        }
+        String legend = "Free movement of persons /\rworkersUnspecified\r14%\rnon-EU\r8%\rTotal EU-15Total EU-12\r65%13%";
+        assertEquals(Arrays.asList(legend, legend), texts);
+        page.getPDDoc().close();
+    }
+
+    // The text bounds isTabular looks at keep the page's reading order too, which tips this page over to not tabular.
+    @Test
+    public void testIsTabularFollowsThePagesReadingOrder() throws IOException {
+        Page page = UtilsForTesting.getPage("src/test/resources/technology/tabula/icdar2013-dataset/competition-dataset-us/us-032.pdf", 1);
+        assertFalse(new SpreadsheetExtractionAlgorithm().isTabular(page));
+        page.getPDDoc().close();
+    }
+
 }
@@ -50,6 +50,27 @@ public class TestTextElement {
 
     }
 
+    @Test
+    public void textChunkTextAndDirectionalityFollowAddAndMerge() {
+        PDType1Font font = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+        TextChunk chunk = new TextChunk(new TextElement(0f, 0f, 10f, 20f, font, 1f, "\u05d0", 1f));
+        Assert.assertEquals("\u05d0", chunk.getText());
+        Assert.assertEquals(-1, chunk.isLtrDominant());
+
+        chunk.add(new TextElement(0f, 10f, 10f, 20f, font, 1f, "A", 1f));
+        Assert.assertEquals("\u05d0A", chunk.getText());
+        Assert.assertEquals(0, chunk.isLtrDominant());
+
+        chunk.merge(new TextChunk(new TextElement(0f, 20f, 10f, 20f, font, 1f, "B", 1f)));
+        Assert.assertEquals("\u05d0AB", chunk.getText());
+        Assert.assertEquals(1, chunk.isLtrDominant());
+
+        List<TextElement> elements = new ArrayList<>();
+        elements.add(new TextElement(0f, 0f, 10f, 20f, font, 1f, "C", 1f));
+        chunk.setTextElements(elements);
+        Assert.assertEquals("C", chunk.getText());
+    }
+
     @Test
     public void mergeFourElementsIntoFourWords() {
 
@@ -176,6 +197,33 @@ public class TestTextElement {
 
     }
 
+    @Test
+    public void mergeWordsSplitsAtVerticalRulingsAcrossBothCharacters() {
+
+        List<TextElement> elements = new ArrayList<>();
+        PDType1Font font = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+        elements.add(new TextElement(0f, 0f, 10f, 20f, font, 1f, "H", 1f, 6f));
+        elements.add(new TextElement(0f, 10f, 10f, 20f, font, 1f, "O", 1f, 6f));
+        elements.add(new TextElement(0f, 20f, 10f, 20f, font, 1f, "L", 1f, 6f));
+        elements.add(new TextElement(0f, 30f, 10f, 20f, font, 1f, "A", 1f, 6f));
+
+        List<Ruling> verticalRulings = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            verticalRulings.add(new Ruling(0, 500 + i, 0, 20));
+        }
+        // between "O" and "L", as tall as the text
+        verticalRulings.add(new Ruling(0, 19, 0, 20));
+        // between "L" and "A", but far below them
+        verticalRulings.add(new Ruling(100, 29, 0, 100));
+
+        List<TextChunk> words = TextElement.mergeWords(elements, verticalRulings);
+
+        Assert.assertEquals(2, words.size());
+        Assert.assertEquals("HO", words.get(0).getText());
+        Assert.assertEquals("LA", words.get(1).getText());
+
+    }
+
     @Test
     public void mergeTenElementsIntoTwoLines() {
 
@@ -7,10 +7,12 @@ import static org.junit.Assert.assertNull;
 import java.awt.geom.Point2D;
 import java.io.File;
 import java.io.IOException;
+import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Random;
 
 import org.apache.pdfbox.Loader;
 import org.apache.pdfbox.rendering.ImageType;
@@ -121,6 +123,34 @@ public class TestUtils {
     	assertEquals(expectedNumbers, numbers);
     }
 
+    @Test
+    public void testRoundMatchesDecimalRounding() {
+        Random random = new Random(42);
+        List<Double> values = new ArrayList<>(Arrays.asList(0.0, -0.0, 0.005, -0.005, 1.005, 2.675, -2.675, 0.125, 0.375,
+                1.4999999999999998, 99.995, 4194.305, 12345.675, 1e7 + 0.005, Double.MIN_VALUE, Double.MAX_VALUE));
+        for (int i = 0; i < 25000; i++) {
+            values.add((random.nextDouble() - 0.5) * 2000);
+            // decimals ending in 5, where half up rounding matters
+            values.add((random.nextInt(2000000) - 1000000) / 1000.0 + 0.0005);
+            values.add((random.nextInt(200000) - 100000) / 100.0 + 0.005);
+            values.add((double) ((random.nextFloat() - 0.5f) * 2000));
+        }
+
+        for (double value : values) {
+            for (int decimalPlace = 0; decimalPlace <= 4; decimalPlace++) {
+                BigDecimal expected = new BigDecimal(Double.toString(value)).setScale(decimalPlace, BigDecimal.ROUND_HALF_UP);
+                String message = value + " to " + decimalPlace + " decimals";
+                assertEquals(message, Float.floatToIntBits(expected.floatValue()), Float.floatToIntBits(Utils.round(value, decimalPlace)));
+                assertEquals(message, expected.unscaledValue().longValue(), Utils.quantize(value, decimalPlace));
+            }
+        }
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void testRoundNaN() {
+        Utils.round(Double.NaN, 2);
+    }
+
     @Test
     public void testJPEG2000DoesNotRaise() throws IOException {
         PDDocument pdf_document = Loader.loadPDF(new File("src/test/resources/technology/tabula/jpeg2000.pdf"));
@@ -15,6 +15,8 @@ import technology.tabula.extractors.SpreadsheetExtractionAlgorithm;
 import technology.tabula.writers.CSVWriter;
 import technology.tabula.writers.JSONWriter;
 import technology.tabula.writers.TSVWriter;
+import technology.tabula.writers.TableStream;
+import technology.tabula.writers.Writer;
 
 public class TestWriters {
 
@@ -120,6 +122,65 @@ public class TestWriters {
         assertEquals(expectedCsv, s);
     }
 
+    @Test
+    public void testStreamingJSONTwoTables() throws IOException {
+        String expectedJson = UtilsForTesting.loadJson("src/test/resources/technology/tabula/json/twotables.json");
+        StringBuilder sb = new StringBuilder();
+        try (TableStream stream = (new JSONWriter()).open(sb)) {
+            for (Table table : this.getTables()) {
+                stream.writeTable(table);
+            }
+        }
+        assertEquals(expectedJson, sb.toString());
+    }
+
+    @Test
+    public void testStreamingCSVTwoTables() throws IOException {
+        String expectedCsv = UtilsForTesting.loadCsv("src/test/resources/technology/tabula/csv/twotables.csv");
+        StringBuilder sb = new StringBuilder();
+        try (TableStream stream = (new CSVWriter()).open(sb)) {
+            for (Table table : this.getTables()) {
+                stream.writeTable(table);
+            }
+        }
+        assertEquals(expectedCsv, sb.toString());
+    }
+
+    @Test
+    public void testStreamingJSONWithoutTables() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        (new JSONWriter()).open(sb).close();
+        assertEquals("[]", sb.toString());
+    }
+
+    @Test
+    public void testStreamingWithAWriterThatOnlyWritesLists() throws IOException {
+        // a writer written before open() was added to the interface
+        Writer writer = new Writer() {
+            private final JSONWriter json = new JSONWriter();
+
+            @Override
+            public void write(Appendable out, Table table) throws IOException {
+                json.write(out, table);
+            }
+
+            @Override
+            public void write(Appendable out, List<Table> tables) throws IOException {
+                json.write(out, tables);
+            }
+        };
+        String expectedJson = UtilsForTesting.loadJson("src/test/resources/technology/tabula/json/twotables.json");
+        StringBuilder sb = new StringBuilder();
+        try (TableStream stream = writer.open(sb)) {
+            for (Table table : this.getTables()) {
+                stream.writeTable(table);
+            }
+            stream.flush();
+            assertEquals("", sb.toString());
+        }
+        assertEquals(expectedJson, sb.toString());
+    }
+
     @Test
     public void testCSVMultilineRow() throws IOException {
         String expectedCsv = UtilsForTesting.loadCsv("src/test/resources/technology/tabula/csv/frx_2012_disclosure.csv");